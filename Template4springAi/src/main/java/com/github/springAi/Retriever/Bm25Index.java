@@ -0,0 +1,350 @@
+package com.github.springAi.Retriever;
+
+import com.github.springAi.config.RagServiceProperties;
+import com.github.springAi.domain.DocumentSegment;
+import com.github.springAi.vector.MetadataFilters;
+import com.github.springAi.vector.TopKHeap;
+import com.github.springAi.vector.VectorStoreChangedEvent;
+import com.github.springAi.vector.VectorStoreRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-process BM25 index over segment content, for the exact identifiers, error codes and part numbers
+ * that dense vectors match poorly.
+ * <p>
+ * Each term maps to a postings list of (ordinal, term frequency) in two growing int arrays. Ordinals are
+ * handed out in increasing order, so every list stays sorted and a query is a document-at-a-time merge of
+ * its terms' lists with no per-document scratch space. Removed segments are tombstoned and the postings
+ * are compacted once tombstones outnumber live segments.
+ * <p>
+ * Built from {@link VectorStoreRepository#forEachSegment} at startup and kept current from
+ * {@link VectorStoreChangedEvent}s; with a shared Postgres store, writes made by other instances show up
+ * after a restart.
+ * <p>
+ * It holds every segment, content included, on the heap next to its postings, and reads the whole store
+ * at startup, so it is off unless {@code rag-service.hybrid.enabled} is set.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "rag-service.hybrid.enabled", havingValue = "true")
+public class Bm25Index {
+
+    private static final int MAX_TERM_LENGTH = 64;
+
+    private final VectorStoreRepository vectorStore;
+    private final float k1;
+    private final float b;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<UUID, Integer> ordinals = new HashMap<>();
+    private DocumentSegment[] segments = new DocumentSegment[1024]; // null = tombstone
+    private int[] lengths = new int[1024];
+    private int ordinalCount;
+    private int liveCount;
+    private long totalLength;
+
+    /**
+     * Sorted by ordinal; {@code live} excludes tombstoned entries and is the document frequency.
+     */
+    private static final class Postings {
+        int[] ordinals = new int[4];
+        int[] frequencies = new int[4];
+        int size;
+        int live;
+
+        void add(int ordinal, int frequency) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            ordinals[size] = ordinal;
+            frequencies[size] = frequency;
+            size++;
+            live++;
+        }
+    }
+
+    public Bm25Index(VectorStoreRepository vectorStore, RagServiceProperties properties) {
+        this.vectorStore = vectorStore;
+        this.k1 = properties.getHybrid().getK1();
+        this.b = properties.getHybrid().getB();
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        long start = System.nanoTime();
+        List<DocumentSegment> batch = new ArrayList<>(1024);
+        vectorStore.forEachSegment(segment -> {
+            batch.add(segment);
+            if (batch.size() == 1024) {
+                upsert(batch);
+                batch.clear();
+            }
+        });
+        upsert(batch);
+        log.info("BM25 index built over {} segments ({} terms) in {} ms", liveCount, postings.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @EventListener
+    public void onStoreChanged(VectorStoreChangedEvent event) {
+        if (!event.removedIds().isEmpty()) {
+            lock.writeLock().lock();
+            try {
+                event.removedIds().forEach(this::remove);
+                compactIfNeeded();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        upsert(event.upserted());
+    }
+
+    private void upsert(List<DocumentSegment> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (DocumentSegment segment : batch) {
+                remove(segment.getId());
+                add(segment);
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return up to {@code topK} segments matching the filters, best BM25 score first.
+     */
+    public List<DocumentSegment> search(String query, int topK, Map<String, Object> filters) {
+        Set<String> terms = new LinkedHashSet<>();
+        tokenize(query, terms::add);
+        if (topK <= 0 || terms.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            if (liveCount == 0) {
+                return List.of();
+            }
+            List<Postings> lists = new ArrayList<>(terms.size());
+            float[] idfs = new float[terms.size()];
+            for (String term : terms) {
+                Postings list = postings.get(term);
+                if (list != null && list.live > 0) {
+                    idfs[lists.size()] = (float) Math.log(1 + (liveCount - list.live + 0.5) / (list.live + 0.5));
+                    lists.add(list);
+                }
+            }
+            if (lists.isEmpty()) {
+                return List.of();
+            }
+
+            float averageLength = (float) totalLength / liveCount;
+            int[] cursors = new int[lists.size()];
+            TopKHeap best = new TopKHeap(topK);
+            while (true) {
+                // Next ordinal present in any list
+                int ordinal = Integer.MAX_VALUE;
+                for (int t = 0; t < cursors.length; t++) {
+                    Postings list = lists.get(t);
+                    if (cursors[t] < list.size) {
+                        ordinal = Math.min(ordinal, list.ordinals[cursors[t]]);
+                    }
+                }
+                if (ordinal == Integer.MAX_VALUE) {
+                    break;
+                }
+                float score = 0;
+                float lengthNorm = k1 * (1 - b + b * lengths[ordinal] / averageLength);
+                for (int t = 0; t < cursors.length; t++) {
+                    Postings list = lists.get(t);
+                    if (cursors[t] < list.size && list.ordinals[cursors[t]] == ordinal) {
+                        int tf = list.frequencies[cursors[t]++];
+                        score += idfs[t] * tf * (k1 + 1) / (tf + lengthNorm);
+                    }
+                }
+                DocumentSegment segment = segments[ordinal];
+                if (segment != null && MetadataFilters.matches(segment.getMetadata(), filters)) {
+                    best.offer(score, ordinal);
+                }
+            }
+
+            int[] bestOrdinals = best.drainIds();
+            List<DocumentSegment> results = new ArrayList<>(bestOrdinals.length);
+            for (int ordinal : bestOrdinals) {
+                results.add(segments[ordinal]);
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(DocumentSegment segment) {
+        Map<String, int[]> frequencies = new HashMap<>();
+        int[] length = new int[1];
+        tokenize(segment.getContent(), term -> {
+            frequencies.computeIfAbsent(term, t -> new int[1])[0]++;
+            length[0]++;
+        });
+        int ordinal = ordinalCount++;
+        if (ordinal == segments.length) {
+            segments = Arrays.copyOf(segments, ordinal * 2);
+            lengths = Arrays.copyOf(lengths, ordinal * 2);
+        }
+        segments[ordinal] = segment;
+        lengths[ordinal] = length[0];
+        ordinals.put(segment.getId(), ordinal);
+        frequencies.forEach((term, tf) -> postings.computeIfAbsent(term, t -> new Postings()).add(ordinal, tf[0]));
+        liveCount++;
+        totalLength += length[0];
+    }
+
+    private void remove(UUID id) {
+        Integer ordinal = ordinals.remove(id);
+        if (ordinal == null) {
+            return;
+        }
+        Set<String> terms = new LinkedHashSet<>();
+        tokenize(segments[ordinal].getContent(), terms::add);
+        for (String term : terms) {
+            Postings list = postings.get(term);
+            if (list != null && --list.live == 0) {
+                postings.remove(term);
+            }
+        }
+        segments[ordinal] = null;
+        liveCount--;
+        totalLength -= lengths[ordinal];
+    }
+
+    /**
+     * Drops tombstoned entries and renumbers live segments in their current order, keeping lists sorted.
+     */
+    private void compactIfNeeded() {
+        int dead = ordinalCount - liveCount;
+        if (dead < 1024 || dead < liveCount) {
+            return;
+        }
+        int[] remap = new int[ordinalCount];
+        DocumentSegment[] compacted = new DocumentSegment[Math.max(1024, liveCount * 2)];
+        int[] compactedLengths = new int[compacted.length];
+        int next = 0;
+        for (int ordinal = 0; ordinal < ordinalCount; ordinal++) {
+            if (segments[ordinal] == null) {
+                remap[ordinal] = -1;
+                continue;
+            }
+            remap[ordinal] = next;
+            compacted[next] = segments[ordinal];
+            compactedLengths[next] = lengths[ordinal];
+            ordinals.put(segments[ordinal].getId(), next);
+            next++;
+        }
+        for (Postings list : postings.values()) {
+            int kept = 0;
+            for (int i = 0; i < list.size; i++) {
+                int mapped = remap[list.ordinals[i]];
+                if (mapped >= 0) {
+                    list.ordinals[kept] = mapped;
+                    list.frequencies[kept] = list.frequencies[i];
+                    kept++;
+                }
+            }
+            list.size = kept;
+            list.ordinals = Arrays.copyOf(list.ordinals, Math.max(4, kept));
+            list.frequencies = Arrays.copyOf(list.frequencies, Math.max(4, kept));
+        }
+        segments = compacted;
+        lengths = compactedLengths;
+        ordinalCount = next;
+        log.debug("Compacted BM25 index, dropped {} tombstones", dead);
+    }
+
+    /**
+     * Lower-cased runs of letters and digits. Runs joined by {@code - _ . / : #} (ERR-1042, v2.3.1,
+     * com.acme.Foo) are also emitted whole, so an identifier matches exactly as well as by its parts.
+     */
+    static void tokenize(String text, Consumer<String> sink) {
+        if (text == null) {
+            return;
+        }
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && !Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            int end = i;
+            boolean compound = false;
+            while (i < length) {
+                char c = text.charAt(i);
+                if (Character.isLetterOrDigit(c)) {
+                    end = ++i;
+                } else if (isJoiner(c) && i + 1 < length && Character.isLetterOrDigit(text.charAt(i + 1))) {
+                    compound = true;
+                    i++;
+                } else {
+                    break;
+                }
+            }
+            if (end == start) {
+                continue;
+            }
+            if (compound) {
+                emit(text.substring(start, end), sink);
+                int partStart = start;
+                for (int j = start; j <= end; j++) {
+                    if (j == end || isJoiner(text.charAt(j))) {
+                        emit(text.substring(partStart, j), sink);
+                        partStart = j + 1;
+                    }
+                }
+            } else {
+                emit(text.substring(start, end), sink);
+            }
+        }
+    }
+
+    private static boolean isJoiner(char c) {
+        return c == '-' || c == '_' || c == '.' || c == '/' || c == ':' || c == '#';
+    }
+
+    private static void emit(String term, Consumer<String> sink) {
+        if (!term.isEmpty() && term.length() <= MAX_TERM_LENGTH) {
+            sink.accept(term.toLowerCase(Locale.ROOT));
+        }
+    }
+}
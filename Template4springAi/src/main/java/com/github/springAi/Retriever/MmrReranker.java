@@ -0,0 +1,85 @@
+package com.github.springAi.Retriever;
+
+import com.github.springAi.config.RagServiceProperties;
+import com.github.springAi.vector.SimilarityKernel;
+import com.github.springAi.vector.SimilarityKernels;
+import com.github.springAi.vector.VectorMatch;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maximal Marginal Relevance: repeatedly picks the candidate maximising
+ * {@code lambda * relevance - (1 - lambda) * max similarity to the ones already picked}, so overlapping
+ * chunks of the same passage stop crowding out everything else.
+ * <p>
+ * Relevance is the cosine between the query and the candidate's stored embedding, on the same scale as
+ * the redundancy penalty. Lexical-only hits have no embedding; they fall back to their incoming rank
+ * (1 for the first candidate down to 1/n for the last) and are never penalised as redundant.
+ * <p>
+ * Off unless {@code rag-service.rerank.enabled} is set: it over-fetches every query by the candidate
+ * multiplier, and the Postgres store then reads the embedding column of every candidate.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@ConditionalOnProperty(name = "rag-service.rerank.enabled", havingValue = "true")
+public class MmrReranker implements Reranker {
+
+    private final float lambda;
+    private final SimilarityKernel kernel = SimilarityKernels.create("auto");
+
+    public MmrReranker(RagServiceProperties properties) {
+        this.lambda = (float) properties.getRerank().getMmrLambda();
+    }
+
+    @Override
+    public List<VectorMatch> rerank(String query, float[] queryEmbedding, List<VectorMatch> candidates, int topK) {
+        int n = candidates.size();
+        int k = Math.min(topK, n);
+        if (k <= 1) {
+            return candidates.subList(0, k);
+        }
+        float[] queryVector = queryEmbedding == null ? null : SimilarityKernels.normalize(queryEmbedding);
+        float[][] vectors = new float[n][];
+        float[] relevance = new float[n];
+        for (int i = 0; i < n; i++) {
+            float[] embedding = candidates.get(i).embedding();
+            vectors[i] = embedding == null ? null : SimilarityKernels.normalize(embedding);
+            relevance[i] = vectors[i] != null && queryVector != null && queryVector.length == vectors[i].length
+                    ? kernel.dot(queryVector, vectors[i])
+                    : 1f - (float) i / n;
+        }
+
+        float[] maxSimilarity = new float[n];
+        boolean[] picked = new boolean[n];
+        List<VectorMatch> selected = new ArrayList<>(k);
+        while (selected.size() < k) {
+            int best = -1;
+            float bestScore = Float.NEGATIVE_INFINITY;
+            for (int i = 0; i < n; i++) {
+                if (picked[i]) {
+                    continue;
+                }
+                float score = lambda * relevance[i] - (1 - lambda) * maxSimilarity[i];
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = i;
+                }
+            }
+            picked[best] = true;
+            selected.add(candidates.get(best));
+            if (vectors[best] != null) {
+                for (int i = 0; i < n; i++) {
+                    if (!picked[i] && vectors[i] != null) {
+                        maxSimilarity[i] = Math.max(maxSimilarity[i], kernel.dot(vectors[best], vectors[i]));
+                    }
+                }
+            }
+        }
+        return selected;
+    }
+}
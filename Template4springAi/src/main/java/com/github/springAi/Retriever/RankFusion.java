@@ -0,0 +1,42 @@
+package com.github.springAi.Retriever;
+
+import com.github.springAi.vector.VectorMatch;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Reciprocal-rank fusion: a segment scores {@code sum 1 / (k + rank)} over the rankings it appears in.
+ * Only ranks are used, so BM25 and cosine scores never need to be put on a common scale.
+ */
+final class RankFusion {
+
+    private RankFusion() {
+    }
+
+    /**
+     * @param rankings best first each; for a segment in several, the match from the first ranking is kept
+     *                 (so put the vector hits, which carry embeddings, first).
+     * @param k        damping constant; 60 is the value from the original RRF paper.
+     * @return the {@code topK} best fused matches; ties keep the order of the first ranking.
+     */
+    static List<VectorMatch> reciprocal(List<List<VectorMatch>> rankings, int k, int topK) {
+        Map<UUID, VectorMatch> matches = new LinkedHashMap<>();
+        Map<UUID, Double> scores = new HashMap<>();
+        for (List<VectorMatch> ranking : rankings) {
+            for (int rank = 0; rank < ranking.size(); rank++) {
+                VectorMatch match = ranking.get(rank);
+                UUID id = match.segment().getId();
+                matches.putIfAbsent(id, match);
+                scores.merge(id, 1.0 / (k + rank + 1), Double::sum);
+            }
+        }
+        List<VectorMatch> fused = new ArrayList<>(matches.values());
+        fused.sort((a, b) -> Double.compare(scores.get(b.segment().getId()), scores.get(a.segment().getId())));
+        return fused.size() > topK ? new ArrayList<>(fused.subList(0, topK)) : fused;
+    }
+}
@@ -0,0 +1,22 @@
+package com.github.springAi.Retriever;
+
+import com.github.springAi.vector.VectorMatch;
+
+import java.util.List;
+
+/**
+ * Second retrieval stage: reorders or narrows an over-fetched candidate pool before the top K are kept.
+ * Every Reranker bean is applied, in {@link org.springframework.core.annotation.Order} order, so a local
+ * cross-encoder can score the pool and {@link MmrReranker} (lowest precedence) then diversify its output.
+ */
+public interface Reranker {
+
+    /**
+     * @param query          the user's question.
+     * @param queryEmbedding its embedding.
+     * @param candidates     best first; embeddings may be null for hits that came from the lexical index.
+     * @param topK           how many results the caller will keep.
+     * @return the candidates to pass on, best first.
+     */
+    List<VectorMatch> rerank(String query, float[] queryEmbedding, List<VectorMatch> candidates, int topK);
+}
@@ -0,0 +1,18 @@
+package com.github.springAi.Retriever;
+
+import com.github.springAi.domain.DocumentSegment;
+
+import java.util.List;
+
+/**
+ * The segments found for a query, together with the query vector they were found with.
+ *
+ * @param queryEmbedding the embedded question; empty when the provider returned no vector.
+ * @param segments       the retrieved segments, most relevant first.
+ */
+public record RetrievalResult(float[] queryEmbedding, List<DocumentSegment> segments) {
+
+    static RetrievalResult empty() {
+        return new RetrievalResult(new float[0], List.of());
+    }
+}
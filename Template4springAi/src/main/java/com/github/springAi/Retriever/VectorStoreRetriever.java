@@ -1,11 +1,17 @@
 package com.github.springAi.Retriever;
 
 
+import com.github.springAi.config.RagServiceProperties;
 import com.github.springAi.domain.DocumentSegment;
+import com.github.springAi.embe.EmbeddingMatrix;
 import com.github.springAi.embe.EmbeddingService;
+import com.github.springAi.service.DownstreamLimiters;
+import com.github.springAi.service.StageObservations;
+import com.github.springAi.vector.VectorMatch;
 import com.github.springAi.vector.VectorStoreRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -18,6 +24,11 @@ public class VectorStoreRetriever {
 
     private final VectorStoreRepository vectorStore;
     private final EmbeddingService embeddingService; // From Spring AI
+    private final DownstreamLimiters limiters;
+    private final RagServiceProperties properties;
+    private final ObjectProvider<Bm25Index> lexicalIndex; // present when rag-service.hybrid.enabled
+    private final ObjectProvider<Reranker> rerankers; // MmrReranker when rag-service.rerank.enabled, plus any custom ones
+    private final StageObservations observations;
 
     /**
      * Retrieves the most relevant document segments for a given query.
@@ -29,29 +40,72 @@ public class VectorStoreRetriever {
      * @return A list of DocumentSegments that are most semantically similar to the query.
      */
     public List<DocumentSegment> retrieve(String query, int topK, Map<String, Object> filters) {
-        log.info("Retrieving documents for query: '{}' with topK: {} and filters: {}", query, topK, filters);
+        return retrieveWithEmbedding(query, topK, filters).segments();
+    }
+
+    /**
+     * Same as {@link #retrieve}, but also hands back the query embedding so callers can reuse it
+     * (e.g. as an answer cache key) without embedding the question twice.
+     */
+    public RetrievalResult retrieveWithEmbedding(String query, int topK, Map<String, Object> filters) {
+        log.debug("Retrieving documents for query: '{}' with topK: {} and filters: {}", query, topK, filters);
 
         // --- CORRECTED LOGIC ---
         // 1. Embed the user's query.
         // The embed service is designed for batching, so we wrap the single query in a list.
-        List<List<Double>> embeddings = embeddingService.embed(List.of(query));
+        EmbeddingMatrix embeddings = observations.observe(StageObservations.QUERY, "embed",
+                () -> limiters.embedding().call(() -> embeddingService.embedMatrix(List.of(query))));
 
-        if (embeddings.isEmpty()) {
+        if (embeddings.rows() == 0) {
             log.warn("Embedding for query resulted in no vectors. Query: '{}'", query);
-            return List.of();
+            return RetrievalResult.empty();
         }
         // Extract the first (and only) embedding vector from the result.
-        float[] queryEmbedding = toFloatArray(embeddings.get(0));
+        float[] queryEmbedding = embeddings.row(0);
 
         // 2. Search the vector store with the query vector AND the filters.
         // This requires the VectorStoreRepository to support dynamic filtering.
-        return vectorStore.search(queryEmbedding, topK, filters);
-    }
-    private float[] toFloatArray(List<Double> in) {
-        float[] out = new float[in.size()];
-        for (int i = 0; i < in.size(); i++) {
-            out[i] = in.get(i).floatValue();
+        Bm25Index lexical = lexicalIndex.getIfAvailable();
+        List<Reranker> stages = rerankers.orderedStream().toList();
+        if (lexical == null && stages.isEmpty()) {
+            List<DocumentSegment> segments = observations.observe(StageObservations.QUERY, "search",
+                    () -> limiters.database().call(() -> vectorStore.search(queryEmbedding, topK, filters)));
+            return new RetrievalResult(queryEmbedding, segments);
+        }
+
+        // Re-rankers get a larger pool to choose from
+        int pool = stages.isEmpty() ? topK : topK * Math.max(1, properties.getRerank().getCandidateMultiplier());
+        List<VectorMatch> candidates;
+        if (lexical == null) {
+            candidates = observations.observe(StageObservations.QUERY, "search",
+                    () -> limiters.database().call(() -> vectorStore.searchMatches(queryEmbedding, pool, filters)));
+        } else {
+            // 3. Hybrid: over-fetch from both retrievers and fuse by rank, so exact identifier matches
+            // surface even when their embeddings are not among the nearest.
+            RagServiceProperties.HybridProperties hybrid = properties.getHybrid();
+            int fetch = pool * Math.max(1, hybrid.getCandidateMultiplier());
+            List<VectorMatch> dense = observations.observe(StageObservations.QUERY, "search",
+                    () -> limiters.database().call(() -> vectorStore.searchMatches(queryEmbedding, fetch, filters)));
+            List<VectorMatch> sparse = observations.observe(StageObservations.QUERY, "lexical_search",
+                    () -> lexical.search(query, fetch, filters)).stream()
+                    .map(segment -> new VectorMatch(segment, Float.NaN, null))
+                    .toList();
+            candidates = RankFusion.reciprocal(List.of(dense, sparse), hybrid.getRrfK(), pool);
+        }
+
+        // 4. Re-rank the pool, then keep the top K
+        if (!stages.isEmpty()) {
+            List<VectorMatch> pooled = candidates;
+            candidates = observations.observe(StageObservations.QUERY, "rerank", () -> {
+                List<VectorMatch> reranked = pooled;
+                for (Reranker stage : stages) {
+                    reranked = stage.rerank(query, queryEmbedding, reranked, topK);
+                }
+                return reranked;
+            });
         }
-        return out;
+        List<DocumentSegment> segments = candidates.stream().limit(topK).map(VectorMatch::segment).toList();
+        log.debug("Kept {} of {} candidates after {} re-ranking stage(s)", segments.size(), pool, stages.size());
+        return new RetrievalResult(queryEmbedding, segments);
     }
-}
\ No newline at end of file
+}
@@ -3,12 +3,16 @@ package com.github.springAi.config;
 import com.github.springAi.embe.EmbeddingServiceProperties;
 import lombok.RequiredArgsConstructor;
 import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.document.MetadataMode;
 import org.springframework.ai.openai.OpenAiChatModel;
 import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.ai.openai.OpenAiEmbeddingModel;
+import org.springframework.ai.openai.OpenAiEmbeddingOptions;
 import org.springframework.ai.openai.api.OpenAiApi;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.retry.support.RetryTemplate;
 
 @Configuration
 @RequiredArgsConstructor
@@ -30,18 +34,21 @@ public class AiClientConfig {
     }
 
     /**
-     * TODO not find the targetClass
-     * Creates the OpenAiEmbeddingClient bean using the manual OpenAiApi.
-     * This follows the same pattern for consistency.
+     * Creates the OpenAiEmbeddingModel bean (formerly OpenAiEmbeddingClient) using the manual OpenAiApi.
+     * This follows the same pattern for consistency. It does not retry: the EmbeddingDispatcher
+     * retries 429s and 5xx with its own backoff, and stacking both would multiply the attempts.
      *
      * @param openAiApi The foundational API client.
-     * @return A configured OpenAiEmbeddingClient.
+     * @return A configured OpenAiEmbeddingModel.
      */
     @Bean
     @ConditionalOnProperty(name = "embedding-service.provider", havingValue = "openai")
-    public OpenAiEmbeddingClient openAiEmbeddingClient(OpenAiApi openAiApi) {
-        // We can also add default options here if needed
-        return new OpenAiEmbeddingClient(openAiApi);
+    public OpenAiEmbeddingModel openAiEmbeddingClient(OpenAiApi openAiApi) {
+        OpenAiEmbeddingOptions defaultOptions = OpenAiEmbeddingOptions.builder()
+                .model(embeddingServiceProperties.getOpenai().getEmbeddingModel())
+                .build();
+        return new OpenAiEmbeddingModel(openAiApi, MetadataMode.EMBED, defaultOptions,
+                RetryTemplate.builder().maxAttempts(1).build());
     }
 
     /**
@@ -58,8 +65,8 @@ public class AiClientConfig {
     public ChatModel openAiChatModel(OpenAiApi openAiApi) {
         // Define the default options for our chat model
         OpenAiChatOptions defaultOptions = OpenAiChatOptions.builder()
-                .withModel(ragServiceProperties.getChatModel())
-                .withTemperature(ragServiceProperties.getTemperature())
+                .model(ragServiceProperties.getChatModel())
+                .temperature(ragServiceProperties.getTemperature())
                 .build();
 
         // Create the ChatModel instance
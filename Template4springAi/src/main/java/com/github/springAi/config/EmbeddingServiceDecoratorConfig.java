@@ -0,0 +1,46 @@
+package com.github.springAi.config;
+
+import com.github.springAi.embe.CachingEmbeddingService;
+import com.github.springAi.embe.CoalescingEmbeddingService;
+import com.github.springAi.embe.EmbeddingService;
+import com.github.springAi.embe.EmbeddingServiceProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class EmbeddingServiceDecoratorConfig {
+
+    /**
+     * Wraps whichever EmbeddingService the provider switch selected, so every consumer
+     * (retriever, ingestion) gets the decorators without knowing about them:
+     * cache (outermost, hits never wait) → coalescer → provider.
+     * Static, and resolving its collaborators lazily, so the post-processor itself is
+     * registered before any of the beans it wraps are created.
+     */
+    @Bean
+    public static BeanPostProcessor embeddingServiceDecorators(ObjectProvider<EmbeddingServiceProperties> properties,
+                                                               ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof EmbeddingService service)
+                        || bean instanceof CachingEmbeddingService || bean instanceof CoalescingEmbeddingService) {
+                    return bean;
+                }
+                EmbeddingServiceProperties config = properties.getObject();
+                if (config.getCoalesce().isEnabled()) {
+                    service = new CoalescingEmbeddingService(service, config.getCoalesce());
+                }
+                if (config.getCache().isEnabled()) {
+                    CachingEmbeddingService caching = new CachingEmbeddingService(service, config.getCache());
+                    meterRegistry.ifAvailable(caching::bindTo);
+                    service = caching;
+                }
+                return service;
+            }
+        };
+    }
+}
@@ -9,8 +9,10 @@ public class IngestConfig {
 
     // Task: Chunking Configuration
     @Bean
-    public TokenTextSplitter tokenTextSplitter() {
-        // Default: 800 tokens, 350 overlap (adjustable)
-        return new TokenTextSplitter(800, 350, 5, 10000, true);
+    public TokenTextSplitter tokenTextSplitter(IngestionProperties properties) {
+        // Default: 800 tokens per chunk, cut at a sentence end past 350 chars (adjustable under ingestion.chunking)
+        IngestionProperties.ChunkingProperties chunking = properties.getChunking();
+        return new TokenTextSplitter(chunking.getChunkSize(), chunking.getMinChunkSizeChars(),
+                chunking.getMinChunkLengthToEmbed(), chunking.getMaxNumChunks(), chunking.isKeepSeparator());
     }
-}
\ No newline at end of file
+}
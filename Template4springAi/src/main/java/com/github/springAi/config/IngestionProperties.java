@@ -0,0 +1,91 @@
+package com.github.springAi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
+
+@Data
+@Validated
+@Configuration
+@ConfigurationProperties(prefix = "ingestion")
+public class IngestionProperties {
+
+    /**
+     * Files parsed at the same time. Each parse runs on its own virtual thread.
+     */
+    private int parserConcurrency = 8;
+
+    /**
+     * Platform threads splitting parsed text into chunks (CPU-bound). 0 means one per core.
+     */
+    private int splitterThreads = 0;
+
+    /**
+     * Embedding requests in flight at once; each carries embedding-service.batch-size chunks.
+     */
+    private int embeddingConcurrency = 2;
+
+    /**
+     * Capacity of each queue between stages. A full queue blocks the stage feeding it.
+     */
+    private int queueCapacity = 64;
+
+    /**
+     * Rows handed to VectorStoreRepository.upsertBatch at once.
+     */
+    private int storeBatchSize = 1000;
+
+    /**
+     * How text is cut into chunks, by the token splitter and by the streaming chunker alike.
+     */
+    private ChunkingProperties chunking = new ChunkingProperties();
+
+    /**
+     * Streaming mode for very large files.
+     */
+    private StreamingProperties streaming = new StreamingProperties();
+
+    @Data
+    public static class ChunkingProperties {
+        /**
+         * Target chunk size in tokens.
+         */
+        private int chunkSize = 800;
+
+        /**
+         * A chunk is cut back to its last sentence end only past this many characters.
+         */
+        private int minChunkSizeChars = 350;
+
+        /**
+         * Chunks this short (in characters, after trimming) are dropped.
+         */
+        private int minChunkLengthToEmbed = 5;
+
+        /**
+         * Upper bound on chunks per document for the (non-streaming) token splitter.
+         */
+        private int maxNumChunks = 10000;
+
+        /**
+         * Keep line breaks inside chunks.
+         */
+        private boolean keepSeparator = true;
+    }
+
+    @Data
+    public static class StreamingProperties {
+        /**
+         * Files at least this large are parsed and chunked incrementally instead of being loaded whole,
+         * if their parser streams them: HTML and DOCX do, PDFs are always loaded whole.
+         */
+        private DataSize threshold = DataSize.ofMegabytes(64);
+
+        /**
+         * Tokens repeated from the end of the previous chunk at the start of the next (streaming mode only).
+         */
+        private int chunkOverlap = 0;
+    }
+}
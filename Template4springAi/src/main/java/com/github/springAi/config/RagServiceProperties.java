@@ -5,6 +5,8 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.validation.annotation.Validated;
 
+import java.time.Duration;
+
 @Data
 @Validated
 @Configuration
@@ -22,8 +24,127 @@ public class RagServiceProperties {
     private double temperature = 0.2;
 
     /**
-     * The token budget for the context window to avoid exceeding model limits.
-     * This is a simple character count; a real tokenizer would be more precise.
+     * The token budget for the retrieved context, counted with the tokenizer below.
      */
     private int contextTokenBudget = 4000;
+
+    /**
+     * BPE encoding of the chat model: cl100k_base (gpt-4, gpt-3.5) or o200k_base (gpt-4o family).
+     */
+    private String tokenizer = "o200k_base";
+
+    /**
+     * Semantic cache of generated answers, see AnswerCache.
+     */
+    private AnswerCacheProperties answerCache = new AnswerCacheProperties();
+
+    /**
+     * Concurrency caps for each downstream of the query path.
+     */
+    private LimitsProperties limits = new LimitsProperties();
+
+    /**
+     * BM25 lexical retrieval fused with the vector results.
+     */
+    private HybridProperties hybrid = new HybridProperties();
+
+    /**
+     * Second-stage re-ranking of an over-fetched candidate pool.
+     */
+    private RerankProperties rerank = new RerankProperties();
+
+    @Data
+    public static class AnswerCacheProperties {
+        /**
+         * Whether answers are cached at all.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Minimum cosine similarity between two question embeddings for the cached answer to be reused.
+         * Both questions must also have used the same filters and retrieved the same segments.
+         */
+        private double similarityThreshold = 0.95;
+
+        /**
+         * Maximum number of cached answers.
+         */
+        private long maximumSize = 1_000;
+
+        /**
+         * How long a cached answer may be served after it was generated.
+         */
+        private Duration expireAfterWrite = Duration.ofMinutes(30);
+    }
+
+    @Data
+    public static class LimitsProperties {
+        /**
+         * Concurrent query-embedding calls.
+         */
+        private int embedding = 32;
+
+        /**
+         * Concurrent vector searches; keep at or below the JDBC pool size.
+         */
+        private int database = 10;
+
+        /**
+         * Concurrent chat-model generations, streaming ones included.
+         */
+        private int llm = 64;
+
+        /**
+         * How long a request waits for a slot before it is rejected with 503.
+         */
+        private Duration acquireTimeout = Duration.ofSeconds(2);
+    }
+
+    @Data
+    public static class HybridProperties {
+        /**
+         * Keep a BM25 index of segment content and fuse its hits into every retrieval. The index keeps
+         * a copy of every segment in memory and is built from the whole store at startup.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Each retriever fetches topK times this many candidates before fusion.
+         */
+        private int candidateMultiplier = 2;
+
+        /**
+         * Reciprocal-rank fusion constant; larger values flatten the advantage of top ranks.
+         */
+        private int rrfK = 60;
+
+        /**
+         * BM25 term-frequency saturation.
+         */
+        private float k1 = 1.2f;
+
+        /**
+         * BM25 document-length normalisation, from 0 (none) to 1 (full).
+         */
+        private float b = 0.75f;
+    }
+
+    @Data
+    public static class RerankProperties {
+        /**
+         * Diversify the retrieved segments with Maximal Marginal Relevance. Over-fetches every query by
+         * the candidate multiplier, with embeddings.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Candidates fetched per requested segment when any re-ranker is active.
+         */
+        private int candidateMultiplier = 4;
+
+        /**
+         * MMR trade-off: 1 keeps the retrieval order, 0 maximises diversity.
+         */
+        private double mmrLambda = 0.7;
+    }
 }
\ No newline at end of file
@@ -2,13 +2,19 @@ package com.github.springAi.controller;
 
 import com.github.springAi.domain.RagRequest;
 import com.github.springAi.domain.RagResponse;
+import com.github.springAi.domain.RagStream;
 import com.github.springAi.service.RAGService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/v1/rag")
 @RequiredArgsConstructor
@@ -20,4 +26,29 @@ public class RAGController {
     public RagResponse query(@RequestBody RagRequest request) {
         return ragService.ask(request);
     }
-}
\ No newline at end of file
+
+    /**
+     * Server-Sent Events: one "sources" event with the retrieved SourceDocument list, then a "token"
+     * event per answer fragment as the model produces it, then "done". Failures end the stream with "error".
+     */
+    @PostMapping(value = "/query/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> queryStream(@RequestBody RagRequest request) {
+        // Subscribed on the request thread: retrieval and the LLM slot block, which is fine on a virtual
+        // thread, while a Reactor scheduler would cap concurrent streams at its pool size
+        return Flux.defer(() -> {
+                    RagStream stream = ragService.askStream(request);
+                    return Flux.concat(
+                            Flux.just(event("sources", stream.getSources())),
+                            stream.getAnswer().map(token -> event("token", token)),
+                            Flux.just(event("done", "")));
+                })
+                .onErrorResume(e -> {
+                    log.error("Streaming query failed", e);
+                    return Flux.just(event("error", String.valueOf(e.getMessage())));
+                });
+    }
+
+    private static ServerSentEvent<Object> event(String name, Object data) {
+        return ServerSentEvent.builder(data).event(name).build();
+    }
+}
@@ -49,5 +49,6 @@ public class DocumentSegment {
         this.metadata = metadata;
         this.documentId = documentId;
         this.content = content;
+        this.createdAt = OffsetDateTime.now();
     }
 }
\ No newline at end of file
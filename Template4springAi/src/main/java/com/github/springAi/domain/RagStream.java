@@ -0,0 +1,17 @@
+package com.github.springAi.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+/**
+ * A streamed RAG answer: the sources are known up front, the answer follows token by token.
+ */
+@Value
+@AllArgsConstructor
+public class RagStream {
+    List<SourceDocument> sources;
+    Flux<String> answer;
+}
@@ -0,0 +1,133 @@
+package com.github.springAi.embe;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Pattern;
+
+/**
+ * Decorates an {@link EmbeddingService} with a size- and TTL-bounded Caffeine cache of query vectors.
+ * <p>
+ * Keys are the model name plus a SHA-256 of the normalised text, values are compact {@code float[]}.
+ * Concurrent callers asking for a key that is already being computed share the in-flight future,
+ * and all misses of one call are sent to the delegate as a single batch. A delegate whose model name
+ * changed while a call was loading (re-weighted local-hash embeddings) gets that call's keys invalidated,
+ * so a vector computed under the new name is never left cached under the old one.
+ */
+@Slf4j
+public class CachingEmbeddingService implements EmbeddingService {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final EmbeddingService delegate;
+    private final AsyncCache<CacheKey, float[]> cache;
+    private final int maxBatchSize;
+
+    record CacheKey(String model, long high, long low) {}
+
+    public CachingEmbeddingService(EmbeddingService delegate, EmbeddingServiceProperties.CacheProperties properties) {
+        this.delegate = delegate;
+        this.maxBatchSize = properties.getMaxBatchSize();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .buildAsync();
+        log.info("Caching embeddings of model {} (maximum size {}, ttl {})",
+                delegate.getModelName(), properties.getMaximumSize(), properties.getExpireAfterWrite());
+    }
+
+    /**
+     * Publishes hit, miss, load and eviction counters as cache.* meters tagged cache=embeddings.
+     */
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "embeddings", "model", delegate.getModelName());
+    }
+
+    @Override
+    public EmbeddingMatrix embedMatrix(List<String> texts) {
+        if (texts.isEmpty() || texts.size() > maxBatchSize) {
+            return delegate.embedMatrix(texts);
+        }
+
+        String model = delegate.getModelName();
+        List<CacheKey> keys = new ArrayList<>(texts.size());
+        Map<CacheKey, String> textByKey = new HashMap<>();
+        for (String text : texts) {
+            CacheKey key = keyOf(model, text);
+            keys.add(key);
+            textByKey.putIfAbsent(key, text);
+        }
+
+        Map<CacheKey, float[]> vectors = cache.getAll(new LinkedHashSet<>(keys),
+                (missing, executor) -> CompletableFuture.completedFuture(load(missing, textByKey))).join();
+        if (!model.equals(delegate.getModelName())) {
+            cache.synchronous().invalidateAll(keys);
+        }
+
+        List<float[]> results = new ArrayList<>(keys.size());
+        for (CacheKey key : keys) {
+            results.add(vectors.get(key));
+        }
+        return EmbeddingMatrix.ofRows(results);
+    }
+
+    private Map<CacheKey, float[]> load(Set<? extends CacheKey> missing, Map<CacheKey, String> textByKey) {
+        List<CacheKey> order = new ArrayList<>(missing);
+        List<String> batch = new ArrayList<>(order.size());
+        for (CacheKey key : order) {
+            batch.add(textByKey.get(key));
+        }
+        EmbeddingMatrix embeddings = delegate.embedMatrix(batch);
+        if (embeddings.rows() != order.size()) {
+            throw new IllegalStateException("Embedding provider returned " + embeddings.rows()
+                    + " vectors for " + order.size() + " texts");
+        }
+        Map<CacheKey, float[]> loaded = new HashMap<>(order.size() * 2);
+        for (int i = 0; i < order.size(); i++) {
+            loaded.put(order.get(i), embeddings.row(i));
+        }
+        return loaded;
+    }
+
+    private static CacheKey keyOf(String model, String text) {
+        String normalized = WHITESPACE.matcher(Normalizer.normalize(text, Normalizer.Form.NFC)).replaceAll(" ").strip();
+        try {
+            ByteBuffer hash = ByteBuffer.wrap(MessageDigest.getInstance("SHA-256")
+                    .digest(normalized.getBytes(StandardCharsets.UTF_8)));
+            return new CacheKey(model, hash.getLong(), hash.getLong());
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public int getDimensions() {
+        return delegate.getDimensions();
+    }
+
+    @Override
+    public String getModelName() {
+        return delegate.getModelName();
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+}
@@ -0,0 +1,157 @@
+package com.github.springAi.embe;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decorates an {@link EmbeddingService} so that concurrent single-text calls (one per query) are
+ * sent to the provider together: a collector waits up to {@code max-wait} after the first queued
+ * text, or until {@code max-batch-size} texts are queued, then embeds them in one call and hands
+ * each caller its vector. Identical texts in a window are embedded once.
+ * <p>
+ * Calls with more than one text are already batched and go straight to the delegate. At most
+ * {@code max-in-flight} windows are with the provider at once; the collector waits for a free slot,
+ * so further queries queue up (and join bigger windows) instead of spawning more calls.
+ * <p>
+ * {@link #close()} stops the collector and fails every query still queued; later calls bypass the coalescer.
+ */
+@Slf4j
+public class CoalescingEmbeddingService implements EmbeddingService {
+
+    private final EmbeddingService delegate;
+    private final long maxWaitNanos;
+    private final int maxBatchSize;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Semaphore inFlight;
+    private final Thread collector;
+    private volatile boolean closed;
+
+    private record Pending(String text, CompletableFuture<float[]> result) {}
+
+    public CoalescingEmbeddingService(EmbeddingService delegate, EmbeddingServiceProperties.CoalesceProperties properties) {
+        this.delegate = delegate;
+        this.maxWaitNanos = properties.getMaxWait().toNanos();
+        this.maxBatchSize = Math.max(1, properties.getMaxBatchSize());
+        this.inFlight = new Semaphore(Math.max(1, properties.getMaxInFlight()));
+        this.collector = Thread.ofVirtual().name("embedding-coalescer").start(this::collect);
+        log.info("Coalescing single-text embeddings (max wait {}, max batch {})", properties.getMaxWait(), maxBatchSize);
+    }
+
+    @Override
+    public EmbeddingMatrix embedMatrix(List<String> texts) {
+        if (texts.size() != 1 || closed) {
+            return delegate.embedMatrix(texts);
+        }
+        CompletableFuture<float[]> result = new CompletableFuture<>();
+        queue.add(new Pending(texts.get(0), result));
+        if (closed) {
+            failQueued(); // closed while queueing: nobody else will take it
+        }
+        try {
+            return EmbeddingMatrix.ofRows(List.of(result.join()));
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e.getCause() instanceof RuntimeException re ? re : e;
+        }
+    }
+
+    private void collect() {
+        while (true) {
+            List<Pending> window = new ArrayList<>(maxBatchSize);
+            try {
+                window.add(queue.take());
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (window.size() < maxBatchSize) {
+                    Pending next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    window.add(next);
+                }
+                inFlight.acquire();
+            } catch (InterruptedException e) {
+                fail(window, shutDown());
+                Thread.currentThread().interrupt();
+                return;
+            }
+            // Keep collecting while this window is with the provider
+            Thread.ofVirtual().start(() -> {
+                try {
+                    flush(window);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+    }
+
+    private void flush(List<Pending> window) {
+        Map<String, List<CompletableFuture<float[]>>> waiters = new LinkedHashMap<>();
+        for (Pending pending : window) {
+            waiters.computeIfAbsent(pending.text(), t -> new ArrayList<>()).add(pending.result());
+        }
+        List<String> texts = new ArrayList<>(waiters.keySet());
+        try {
+            EmbeddingMatrix vectors = delegate.embedMatrix(texts);
+            if (vectors.rows() != texts.size()) {
+                throw new IllegalStateException("Embedding provider returned " + vectors.rows()
+                        + " vectors for " + texts.size() + " texts");
+            }
+            log.debug("Coalesced {} query embeddings into one call of {} texts", window.size(), texts.size());
+            for (int i = 0; i < texts.size(); i++) {
+                float[] vector = vectors.row(i); // callers copy it into their own matrix, so it can be shared
+                waiters.get(texts.get(i)).forEach(f -> f.complete(vector));
+            }
+        } catch (Throwable e) {
+            // Errors too: a caller left without an outcome would wait in join() forever
+            fail(window, e);
+        }
+    }
+
+    private static void fail(List<Pending> window, Throwable cause) {
+        window.forEach(p -> p.result().completeExceptionally(cause));
+    }
+
+    private void failQueued() {
+        List<Pending> queued = new ArrayList<>();
+        queue.drainTo(queued);
+        fail(queued, shutDown());
+    }
+
+    private static IllegalStateException shutDown() {
+        return new IllegalStateException("Embedding coalescer is shut down");
+    }
+
+    /**
+     * Stops the collector and fails the queries it has not sent yet; windows already sent complete normally.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        collector.interrupt();
+        failQueued();
+        delegate.close();
+    }
+
+    @Override
+    public int getDimensions() {
+        return delegate.getDimensions();
+    }
+
+    @Override
+    public String getModelName() {
+        return delegate.getModelName();
+    }
+}
@@ -0,0 +1,132 @@
+package com.github.springAi.embe;
+
+import com.github.springAi.domain.DocumentSegment;
+import com.github.springAi.vector.VectorStoreRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Document frequencies of the hashed feature buckets over the stored corpus, for IDF weighting in
+ * {@link HashingEmbeddingService}.
+ * <p>
+ * The weights are a frozen {@link Snapshot}, replaced only by {@link #reindex()}, which re-embeds every
+ * stored segment with the new weights; ingestion does not move them. The snapshot is not persisted, so a
+ * start over a non-empty store re-indexes once: whatever weights the stored vectors were embedded with,
+ * afterwards they and the queries share a generation. The generation is part of the model name, which
+ * keeps cached query embeddings of an older generation from being served.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "embedding-service.provider", havingValue = "local-hash")
+public class CorpusIdf {
+
+    private final FeatureHasher hasher;
+    private final boolean enabled;
+    private final int batchSize;
+    private final ObjectProvider<VectorStoreRepository> vectorStore;
+    private final ObjectProvider<EmbeddingService> embeddingService;
+    private volatile Snapshot snapshot;
+
+    /**
+     * One generation of weights.
+     *
+     * @param weights one per bucket, shared by every caller; never modified after construction.
+     */
+    public record Snapshot(int generation, long documents, float[] weights) {}
+
+    public CorpusIdf(EmbeddingServiceProperties properties, ObjectProvider<VectorStoreRepository> vectorStore,
+                     ObjectProvider<EmbeddingService> embeddingService) {
+        this.hasher = FeatureHasher.from(properties);
+        this.enabled = properties.getLocalHash().isIdf();
+        this.batchSize = Math.max(1, properties.getBatchSize());
+        this.vectorStore = vectorStore;
+        this.embeddingService = embeddingService;
+        this.snapshot = uniform(0);
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public synchronized void seed() {
+        if (!enabled || snapshot.generation() > 0) {
+            return;
+        }
+        long segments = reindex();
+        if (segments > 0) {
+            log.info("Re-embedded {} stored segments with IDF weights generation {}", segments, snapshot.generation());
+        }
+    }
+
+    /**
+     * Recomputes the weights from the stored segments under a new generation, then re-embeds and re-stores
+     * every segment with them. Nothing changes while the store is empty.
+     *
+     * @return the number of segments re-embedded.
+     */
+    public synchronized long reindex() {
+        if (!enabled) {
+            return 0;
+        }
+        VectorStoreRepository store = vectorStore.getIfAvailable();
+        if (store == null) {
+            return 0;
+        }
+        // Read everything first: a store may read through a cursor in a read-only transaction,
+        // which the upserts below must not join
+        List<DocumentSegment> segments = new ArrayList<>();
+        store.forEachSegment(segments::add);
+        if (segments.isEmpty()) {
+            return 0;
+        }
+        snapshot = count(segments, snapshot.generation() + 1);
+        log.info("IDF weights generation {} computed from {} stored segments", snapshot.generation(),
+                snapshot.documents());
+
+        EmbeddingService embeddings = embeddingService.getObject();
+        for (int from = 0; from < segments.size(); from += batchSize) {
+            List<DocumentSegment> batch = segments.subList(from, Math.min(from + batchSize, segments.size()));
+            List<String> texts = batch.stream().map(DocumentSegment::getContent).toList();
+            store.upsertBatch(batch, embeddings.embedMatrix(texts).toRows());
+        }
+        return segments.size();
+    }
+
+    private Snapshot count(List<DocumentSegment> segments, int generation) {
+        int[] documentFrequency = new int[hasher.dimensions()];
+        BitSet buckets = new BitSet(hasher.dimensions());
+        for (DocumentSegment segment : segments) {
+            buckets.clear();
+            hasher.hash(segment.getContent(), (bucket, value) -> buckets.set(bucket));
+            for (int bucket = buckets.nextSetBit(0); bucket >= 0; bucket = buckets.nextSetBit(bucket + 1)) {
+                documentFrequency[bucket]++;
+            }
+        }
+        // Smoothed IDF per bucket, ln((N + 1) / (df + 1)) + 1
+        long n = segments.size();
+        float[] weights = new float[documentFrequency.length];
+        for (int bucket = 0; bucket < weights.length; bucket++) {
+            weights[bucket] = (float) (Math.log((n + 1.0) / (documentFrequency[bucket] + 1.0)) + 1.0);
+        }
+        return new Snapshot(generation, n, weights);
+    }
+
+    private Snapshot uniform(int generation) {
+        float[] weights = new float[hasher.dimensions()];
+        Arrays.fill(weights, 1f);
+        return new Snapshot(generation, 0, weights);
+    }
+
+    /**
+     * The current generation; all-ones weights while disabled or until the first re-index.
+     */
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+}
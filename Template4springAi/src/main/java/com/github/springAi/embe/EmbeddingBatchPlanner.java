@@ -0,0 +1,77 @@
+package com.github.springAi.embe;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Packs texts into embedding requests by estimated token count rather than a fixed item count.
+ * <p>
+ * Texts are taken longest first, so each request holds texts of similar size and payloads stay
+ * uniform; a request is closed once the next text would pass {@code maxTokens} or it holds
+ * {@code maxItems} texts. A single text over the ceiling gets a request of its own.
+ */
+public class EmbeddingBatchPlanner {
+
+    private final int maxTokens;
+    private final int maxItems;
+    private final ToIntFunction<String> tokenEstimator;
+
+    /**
+     * @param indexes positions of {@code texts} in the planner's input.
+     */
+    public record Batch(int[] indexes, List<String> texts, int tokens) {}
+
+    public EmbeddingBatchPlanner(int maxTokens, int maxItems, ToIntFunction<String> tokenEstimator) {
+        this.maxTokens = Math.max(1, maxTokens);
+        this.maxItems = Math.max(1, maxItems);
+        this.tokenEstimator = tokenEstimator;
+    }
+
+    public List<Batch> plan(List<String> texts) {
+        int n = texts.size();
+        int[] tokens = new int[n];
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            tokens[i] = tokenEstimator.applyAsInt(texts.get(i));
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingInt((Integer i) -> tokens[i]).reversed());
+
+        List<Batch> batches = new ArrayList<>();
+        int[] indexes = new int[Math.min(n, maxItems)];
+        int size = 0;
+        int batchTokens = 0;
+        for (int i : order) {
+            if (size > 0 && (size == maxItems || batchTokens + tokens[i] > maxTokens)) {
+                batches.add(toBatch(texts, indexes, size, batchTokens));
+                size = 0;
+                batchTokens = 0;
+            }
+            indexes[size++] = i;
+            batchTokens += tokens[i];
+        }
+        if (size > 0) {
+            batches.add(toBatch(texts, indexes, size, batchTokens));
+        }
+        return batches;
+    }
+
+    private static Batch toBatch(List<String> texts, int[] indexes, int size, int tokens) {
+        int[] copy = Arrays.copyOf(indexes, size);
+        List<String> batchTexts = new ArrayList<>(size);
+        for (int index : copy) {
+            batchTexts.add(texts.get(index));
+        }
+        return new Batch(copy, batchTexts, tokens);
+    }
+
+    /**
+     * Roughly four characters per token for English text.
+     */
+    public static int estimateTokens(String text) {
+        return (text.length() + 3) / 4;
+    }
+}
@@ -0,0 +1,27 @@
+package com.github.springAi.embe;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+
+@ShellComponent
+@RequiredArgsConstructor
+public class EmbeddingCommands {
+
+    private final ObjectProvider<CorpusIdf> corpusIdf; // only with embedding-service.provider=local-hash
+
+    @ShellMethod(key = "idf-reindex", value = "Recompute the local-hash IDF weights and re-embed every stored segment")
+    public String idfReindex() {
+        CorpusIdf idf = corpusIdf.getIfAvailable();
+        if (idf == null) {
+            return "IDF weights are only used by the local-hash embedding provider";
+        }
+        try {
+            long segments = idf.reindex();
+            return "Re-embedded " + segments + " segments with IDF weights generation " + idf.snapshot().generation();
+        } catch (Exception e) {
+            return "Error: " + e.getMessage();
+        }
+    }
+}
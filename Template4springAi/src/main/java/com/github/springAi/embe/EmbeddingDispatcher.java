@@ -0,0 +1,189 @@
+package com.github.springAi.embe;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Sends embedding batches to an {@link EmbeddingModel} concurrently, one virtual thread per batch and
+ * at most {@code max-concurrency} in flight, within request- and token-per-minute budgets.
+ * <p>
+ * A 429 or 5xx is retried with full-jitter exponential backoff (or the server's Retry-After), and a 429
+ * also halves the budgets' rate until successful calls grow it back; the model itself should not retry
+ * as well (see {@code AiClientConfig}). Results are placed by their index and returned in input order;
+ * a response that does not hold exactly one vector per text fails the batch. Works against any EmbeddingModel, so a stub that simulates latency and rate limits can stand in for OpenAI.
+ */
+@Slf4j
+public class EmbeddingDispatcher {
+
+    // Spring AI's error handler reports HTTP failures as "<status> - <body>"
+    private static final Pattern STATUS_PREFIX = Pattern.compile("^(\\d{3}) - ");
+
+    private final EmbeddingModel model;
+    private final EmbeddingOptions options;
+    private final EmbeddingServiceProperties.DispatchProperties properties;
+    private final RateBudget requests;
+    private final RateBudget tokens;
+    private final Semaphore inFlight;
+
+    public EmbeddingDispatcher(EmbeddingModel model, EmbeddingOptions options,
+                               EmbeddingServiceProperties.DispatchProperties properties) {
+        this.model = model;
+        this.options = options;
+        this.properties = properties;
+        this.requests = new RateBudget(properties.getRequestsPerMinute());
+        this.tokens = new RateBudget(properties.getTokensPerMinute());
+        this.inFlight = new Semaphore(Math.max(1, properties.getMaxConcurrency()));
+    }
+
+    /**
+     * @return one vector per text, in the order of the batches and of the texts within them.
+     */
+    public List<float[]> embed(List<List<String>> batches) {
+        List<Future<List<float[]>>> futures = new ArrayList<>(batches.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (List<String> batch : batches) {
+                futures.add(executor.submit(() -> call(batch)));
+            }
+            // Cancel inside the try: closing the executor waits for every task still running
+            try {
+                List<float[]> results = new ArrayList<>();
+                for (Future<List<float[]>> future : futures) {
+                    results.addAll(future.get());
+                }
+                return results;
+            } catch (ExecutionException e) {
+                futures.forEach(f -> f.cancel(true));
+                throw e.getCause() instanceof RuntimeException re ? re : new IllegalStateException(e.getCause());
+            } catch (InterruptedException e) {
+                futures.forEach(f -> f.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while embedding", e);
+            }
+        }
+    }
+
+    private List<float[]> call(List<String> batch) throws InterruptedException {
+        int estimatedTokens = estimateTokens(batch);
+        for (int attempt = 0; ; attempt++) {
+            sleepNanos(Math.max(requests.reserve(1), tokens.reserve(estimatedTokens)));
+            long backoff;
+            inFlight.acquire();
+            try {
+                EmbeddingResponse response = model.call(new EmbeddingRequest(batch, options));
+                requests.recover();
+                tokens.recover();
+                return inInputOrder(batch, response);
+            } catch (RuntimeException e) {
+                int status = statusOf(e);
+                boolean retryable = status == 429 || status >= 500 || (status < 0 && e instanceof TransientAiException);
+                if (!retryable || attempt >= properties.getMaxRetries()) {
+                    throw e;
+                }
+                if (status == 429) {
+                    requests.throttle();
+                    tokens.throttle();
+                }
+                backoff = backoffNanos(attempt, retryAfter(e));
+                log.warn("Embedding batch of {} failed ({}), retry {} of {} in {} ms", batch.size(),
+                        status > 0 ? status : e.getClass().getSimpleName(), attempt + 1, properties.getMaxRetries(),
+                        TimeUnit.NANOSECONDS.toMillis(backoff));
+            } finally {
+                inFlight.release();
+            }
+            sleepNanos(backoff); // without holding a slot, so other batches keep going
+        }
+    }
+
+    /**
+     * One vector per text, placed by the result's index (its position when the provider sends none).
+     */
+    private static List<float[]> inInputOrder(List<String> batch, EmbeddingResponse response) {
+        List<Embedding> results = response.getResults();
+        if (results.size() != batch.size()) {
+            throw new IllegalStateException("Embedding provider returned " + results.size()
+                    + " vectors for " + batch.size() + " texts");
+        }
+        float[][] vectors = new float[batch.size()][];
+        for (int i = 0; i < results.size(); i++) {
+            Embedding result = results.get(i);
+            int index = result.getIndex() == null ? i : result.getIndex();
+            if (index < 0 || index >= vectors.length || vectors[index] != null) {
+                throw new IllegalStateException("Embedding provider returned index " + index
+                        + " out of place in a batch of " + batch.size() + " texts");
+            }
+            vectors[index] = result.getOutput();
+        }
+        return List.of(vectors);
+    }
+
+    /**
+     * Full jitter: uniform in [0, min(max-backoff, initial-backoff * 2^attempt)], or the server's
+     * Retry-After when it asks for longer.
+     */
+    private long backoffNanos(int attempt, Duration retryAfter) {
+        long cap = Math.min(properties.getMaxBackoff().toNanos(),
+                properties.getInitialBackoff().toNanos() << Math.min(attempt, 30));
+        long jittered = ThreadLocalRandom.current().nextLong(Math.max(1, cap) + 1);
+        return retryAfter == null ? jittered : Math.max(jittered, retryAfter.toNanos());
+    }
+
+    private static int statusOf(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof RestClientResponseException http) {
+                return http.getStatusCode().value();
+            }
+            if (t.getMessage() != null) {
+                Matcher m = STATUS_PREFIX.matcher(t.getMessage());
+                if (m.find()) {
+                    return Integer.parseInt(m.group(1));
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static Duration retryAfter(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof RestClientResponseException http && http.getResponseHeaders() != null) {
+                String value = http.getResponseHeaders().getFirst("Retry-After");
+                if (value != null && value.chars().allMatch(Character::isDigit)) {
+                    return Duration.ofSeconds(Long.parseLong(value));
+                }
+            }
+        }
+        return null;
+    }
+
+    private static int estimateTokens(List<String> texts) {
+        long tokens = 0;
+        for (String text : texts) {
+            tokens += EmbeddingBatchPlanner.estimateTokens(text);
+        }
+        return (int) Math.min(Integer.MAX_VALUE, tokens);
+    }
+
+    private static void sleepNanos(long nanos) throws InterruptedException {
+        if (nanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.github.springAi.embe;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A batch of embeddings as one contiguous row-major {@code float[]}: {@code rows x dimensions} floats
+ * instead of a boxed {@code Double} per component (6 KB rather than ~37 KB for a 1536-dim vector).
+ * Rows are read as copies ({@link #row}) or as no-copy read-only views ({@link #rowView}).
+ */
+public final class EmbeddingMatrix {
+
+    private final float[] data;
+    private final int rows;
+    private final int dimensions;
+
+    public EmbeddingMatrix(int rows, int dimensions) {
+        this.data = new float[Math.multiplyExact(rows, dimensions)];
+        this.rows = rows;
+        this.dimensions = dimensions;
+    }
+
+    /**
+     * Copies the given vectors, which must all have the same length.
+     */
+    public static EmbeddingMatrix ofRows(List<float[]> vectors) {
+        EmbeddingMatrix matrix = new EmbeddingMatrix(vectors.size(), vectors.isEmpty() ? 0 : vectors.get(0).length);
+        for (int i = 0; i < vectors.size(); i++) {
+            matrix.setRow(i, vectors.get(i));
+        }
+        return matrix;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int dimensions() {
+        return dimensions;
+    }
+
+    public float get(int row, int column) {
+        return data[offset(row) + column];
+    }
+
+    public void set(int row, int column, float value) {
+        data[offset(row) + column] = value;
+    }
+
+    public void setRow(int row, float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("Expected " + dimensions + " dimensions, got " + vector.length);
+        }
+        System.arraycopy(vector, 0, data, offset(row), dimensions);
+    }
+
+    /**
+     * @return a copy of the row, safe to keep and modify.
+     */
+    public float[] row(int row) {
+        float[] out = new float[dimensions];
+        System.arraycopy(data, offset(row), out, 0, dimensions);
+        return out;
+    }
+
+    /**
+     * @return a read-only view of the row, backed by this matrix.
+     */
+    public FloatBuffer rowView(int row) {
+        return FloatBuffer.wrap(data, offset(row), dimensions).slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * One copied array per row, for APIs that take {@code List<float[]>} such as
+     * {@link com.github.springAi.vector.VectorStoreRepository#upsertBatch}.
+     */
+    public List<float[]> toRows() {
+        List<float[]> out = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            out.add(row(i));
+        }
+        return out;
+    }
+
+    /**
+     * The boxed form behind {@link EmbeddingService#embed}; avoid on hot paths.
+     */
+    public List<List<Double>> toLists() {
+        List<List<Double>> out = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            List<Double> vector = new ArrayList<>(dimensions);
+            for (int j = offset(i), end = j + dimensions; j < end; j++) {
+                vector.add((double) data[j]);
+            }
+            out.add(vector);
+        }
+        return out;
+    }
+
+    private int offset(int row) {
+        if (row < 0 || row >= rows) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + rows);
+        }
+        return row * dimensions;
+    }
+}
@@ -2,16 +2,27 @@ package com.github.springAi.embe;
 
 import java.util.List;
 
-public interface EmbeddingService {
+public interface EmbeddingService extends AutoCloseable {
 
     /**
      * Converts a list of text strings into a list of embedding vectors.
-     * Implementations are expected to handle batching internally.
+     * Boxes every component; prefer {@link #embedMatrix} on hot paths.
      *
      * @param texts A list of strings to embed.
      * @return A list of embedding vectors, where each vector is a List of Doubles.
      */
-    List<List<Double>> embed(List<String> texts);
+    default List<List<Double>> embed(List<String> texts) {
+        return embedMatrix(texts).toLists();
+    }
+
+    /**
+     * Converts a list of text strings into embedding vectors, one matrix row per text in input order.
+     * Implementations are expected to handle batching internally.
+     *
+     * @param texts A list of strings to embed.
+     * @return The embeddings as a contiguous float matrix.
+     */
+    EmbeddingMatrix embedMatrix(List<String> texts);
 
     /**
      * Returns the expected dimension of the embedding vectors produced by this service.
@@ -19,4 +30,18 @@ public interface EmbeddingService {
      * @return The vector dimension.
      */
     int getDimensions();
+
+    /**
+     * Identifies the model behind this service, so cached vectors are never shared across models.
+     *
+     * @return The model name.
+     */
+    String getModelName();
+
+    /**
+     * Releases background resources; decorators close their delegate. Called by the container on shutdown.
+     */
+    @Override
+    default void close() {
+    }
 }
\ No newline at end of file
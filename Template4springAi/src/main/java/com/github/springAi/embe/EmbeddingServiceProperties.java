@@ -5,6 +5,8 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.validation.annotation.Validated;
 
+import java.time.Duration;
+
 @Data
 @Validated
 @Configuration
@@ -12,15 +14,22 @@ import org.springframework.validation.annotation.Validated;
 public class EmbeddingServiceProperties {
 
     /**
-     * The active embedding provider. Can be "openai" or "mock".
+     * The active embedding provider. Can be "openai", "local-hash" (offline feature hashing) or "mock".
      */
     private String provider = "openai";
 
     /**
      * Default batch size for embedding requests to avoid overloading the provider.
+     * For the OpenAI provider this caps the items per request; see maxTokensPerBatch.
      */
     private int batchSize = 100;
 
+    /**
+     * Estimated tokens per embedding request. Requests are packed by token count up to this
+     * ceiling (and at most batchSize items), longest texts first.
+     */
+    private int maxTokensPerBatch = 60_000;
+
     /**
      * The output dimension of the embedding model.
      * OpenAI text-embedding-3-small is 1536.
@@ -33,6 +42,26 @@ public class EmbeddingServiceProperties {
      */
     private OpenAiProperties openai = new OpenAiProperties();
 
+    /**
+     * Configuration specific to the local-hash provider.
+     */
+    private LocalHashProperties localHash = new LocalHashProperties();
+
+    /**
+     * Cache for query embeddings in front of the active provider.
+     */
+    private CacheProperties cache = new CacheProperties();
+
+    /**
+     * Micro-batching of concurrent single-text (query) embeddings.
+     */
+    private CoalesceProperties coalesce = new CoalesceProperties();
+
+    /**
+     * Concurrency, rate budgets and retries for calls to a remote provider.
+     */
+    private DispatchProperties dispatch = new DispatchProperties();
+
     @Data
     public static class OpenAiProperties {
         /**
@@ -40,4 +69,107 @@ public class EmbeddingServiceProperties {
          */
         private String embeddingModel = "text-embedding-3-small";
     }
-}
\ No newline at end of file
+
+    @Data
+    public static class CacheProperties {
+        /**
+         * Whether the active EmbeddingService is wrapped in a CachingEmbeddingService.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Maximum number of cached vectors; beyond it Caffeine evicts the least valuable entries.
+         */
+        private long maximumSize = 10_000;
+
+        /**
+         * How long a cached vector stays valid after it was computed.
+         */
+        private Duration expireAfterWrite = Duration.ofHours(1);
+
+        /**
+         * Calls with more texts than this (ingestion batches) bypass the cache,
+         * so bulk loads do not evict the hot query entries.
+         */
+        private int maxBatchSize = 8;
+    }
+
+    @Data
+    public static class DispatchProperties {
+        /**
+         * Embedding requests in flight at once, across all callers.
+         */
+        private int maxConcurrency = 4;
+
+        /**
+         * Provider request-per-minute limit; 0 disables request pacing.
+         */
+        private int requestsPerMinute = 3_000;
+
+        /**
+         * Provider token-per-minute limit; 0 disables token pacing.
+         */
+        private int tokensPerMinute = 1_000_000;
+
+        /**
+         * Retries for a batch answered with 429 or 5xx before the call fails.
+         */
+        private int maxRetries = 5;
+
+        /**
+         * Backoff ceiling for the first retry; doubles per attempt, randomised below the ceiling.
+         */
+        private Duration initialBackoff = Duration.ofMillis(500);
+
+        /**
+         * Upper bound for any single backoff.
+         */
+        private Duration maxBackoff = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class CoalesceProperties {
+        /**
+         * Whether the active EmbeddingService is wrapped in a CoalescingEmbeddingService.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Longest a query waits for others to share its provider call.
+         */
+        private Duration maxWait = Duration.ofMillis(5);
+
+        /**
+         * Queries sent together at most; a full window is sent without waiting.
+         */
+        private int maxBatchSize = 32;
+
+        /**
+         * Windows with the provider at once; further queries wait and are sent in later windows.
+         */
+        private int maxInFlight = 8;
+    }
+
+    @Data
+    public static class LocalHashProperties {
+        /**
+         * Shortest character n-gram hashed per word (the word is padded with boundary markers).
+         */
+        private int charNgramMin = 3;
+
+        /**
+         * Longest character n-gram hashed per word.
+         */
+        private int charNgramMax = 5;
+
+        /**
+         * Also hash pairs of adjacent words.
+         */
+        private boolean wordBigrams = true;
+
+        /**
+         * Weight buckets by inverse document frequency over the stored segments.
+         */
+        private boolean idf = true;
+    }
+}
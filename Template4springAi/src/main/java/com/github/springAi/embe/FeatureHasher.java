@@ -0,0 +1,124 @@
+package com.github.springAi.embe;
+
+/**
+ * The hashing trick over words, word bigrams and character n-grams of {@code <word>}: each feature is
+ * hashed (MurmurHash3 mixing, no substring allocation) to a bucket in {@code [0, dimensions)} and a sign,
+ * so collisions cancel out on average instead of piling up. Text is lower-cased on the fly.
+ * Stateless, hence safe to share between threads.
+ */
+final class FeatureHasher {
+
+    private static final int WORD_SEED = 0x5bd1e995;
+    private static final int BIGRAM_SEED = 0x27d4eb2f;
+    private static final int CHAR_SEED = 0x165667b1;
+
+    // Whole words dominate, n-grams add robustness to inflections and typos
+    private static final float WORD_WEIGHT = 1.0f;
+    private static final float BIGRAM_WEIGHT = 0.7f;
+    private static final float CHAR_WEIGHT = 0.3f;
+
+    @FunctionalInterface
+    interface Sink {
+        void accept(int bucket, float value);
+    }
+
+    private final int dimensions;
+    private final int minN;
+    private final int maxN;
+    private final boolean wordBigrams;
+
+    FeatureHasher(int dimensions, int minN, int maxN, boolean wordBigrams) {
+        if (dimensions <= 0 || minN <= 0 || maxN < minN) {
+            throw new IllegalArgumentException("Invalid feature hashing configuration");
+        }
+        this.dimensions = dimensions;
+        this.minN = minN;
+        this.maxN = maxN;
+        this.wordBigrams = wordBigrams;
+    }
+
+    static FeatureHasher from(EmbeddingServiceProperties properties) {
+        EmbeddingServiceProperties.LocalHashProperties local = properties.getLocalHash();
+        return new FeatureHasher(properties.getDimensions(), local.getCharNgramMin(), local.getCharNgramMax(),
+                local.isWordBigrams());
+    }
+
+    int dimensions() {
+        return dimensions;
+    }
+
+    void hash(String text, Sink sink) {
+        int length = text.length();
+        int previousWord = 0;
+        boolean hasPrevious = false;
+        int i = 0;
+        while (i < length) {
+            while (i < length && !Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < length && Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            if (start == i) {
+                break;
+            }
+            int word = hashRange(text, start, i, WORD_SEED);
+            emit(word, WORD_WEIGHT, sink);
+            if (wordBigrams && hasPrevious) {
+                emit(fmix(mix(mix(BIGRAM_SEED, previousWord), word) ^ 2), BIGRAM_WEIGHT, sink);
+            }
+            previousWord = word;
+            hasPrevious = true;
+            charNgrams(text, start, i, sink);
+        }
+    }
+
+    /**
+     * N-grams of the word padded with boundary markers, so "<ca" and "at>" mark prefixes and suffixes.
+     */
+    private void charNgrams(String text, int start, int end, Sink sink) {
+        int padded = end - start + 2;
+        for (int n = minN; n <= maxN && n <= padded; n++) {
+            for (int from = 0; from + n <= padded; from++) {
+                int h = CHAR_SEED ^ n;
+                for (int p = from; p < from + n; p++) {
+                    char c = p == 0 ? '<' : p == padded - 1 ? '>' : Character.toLowerCase(text.charAt(start + p - 1));
+                    h = mix(h, c);
+                }
+                emit(fmix(h ^ n), CHAR_WEIGHT, sink);
+            }
+        }
+    }
+
+    private void emit(int hash, float weight, Sink sink) {
+        // Bit 0 picks the sign, the remaining bits the bucket
+        sink.accept((hash >>> 1) % dimensions, (hash & 1) == 0 ? weight : -weight);
+    }
+
+    private static int hashRange(String text, int start, int end, int seed) {
+        int h = seed;
+        for (int i = start; i < end; i++) {
+            h = mix(h, Character.toLowerCase(text.charAt(i)));
+        }
+        return fmix(h ^ (end - start));
+    }
+
+    private static int mix(int h, int k) {
+        k *= 0xcc9e2d51;
+        k = Integer.rotateLeft(k, 15);
+        k *= 0x1b873593;
+        h ^= k;
+        h = Integer.rotateLeft(h, 13);
+        return h * 5 + 0xe6546b64;
+    }
+
+    private static int fmix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
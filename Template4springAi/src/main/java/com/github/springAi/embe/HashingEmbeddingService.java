@@ -0,0 +1,89 @@
+package com.github.springAi.embe;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Offline embeddings by feature hashing ({@code embedding-service.provider=local-hash}): words, word
+ * bigrams and character n-grams hashed into {@code dimensions} signed buckets, optionally IDF-weighted
+ * from the stored corpus, then L2-normalised. Texts sharing vocabulary land close together, so recall
+ * is meaningful enough to exercise and benchmark the whole pipeline without a network.
+ * <p>
+ * Holds no mutable state of its own; concurrent callers each work in their own scratch row. With IDF
+ * the model name carries the weights' generation, so caches keyed by it drop vectors of older weights;
+ * each call reads one {@link CorpusIdf.Snapshot} for both.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "embedding-service.provider", havingValue = "local-hash")
+public class HashingEmbeddingService implements EmbeddingService {
+
+    private final FeatureHasher hasher;
+    private final ObjectProvider<CorpusIdf> idf;
+    private final boolean idfEnabled;
+
+    public HashingEmbeddingService(EmbeddingServiceProperties properties, ObjectProvider<CorpusIdf> idf) {
+        this.hasher = FeatureHasher.from(properties);
+        this.idf = idf;
+        this.idfEnabled = properties.getLocalHash().isIdf();
+        log.info("Initialized local feature-hashing embedding service with dimension {} (IDF: {})",
+                hasher.dimensions(), properties.getLocalHash().isIdf());
+    }
+
+    @Override
+    public EmbeddingMatrix embedMatrix(List<String> texts) {
+        int dimensions = hasher.dimensions();
+        EmbeddingMatrix matrix = new EmbeddingMatrix(texts.size(), dimensions);
+        if (texts.isEmpty()) {
+            return matrix;
+        }
+        CorpusIdf.Snapshot snapshot = snapshot();
+        float[] weights = snapshot == null ? null : snapshot.weights();
+        float[] row = new float[dimensions];
+        FeatureHasher.Sink accumulate = weights == null
+                ? (bucket, value) -> row[bucket] += value
+                : (bucket, value) -> row[bucket] += value * weights[bucket];
+        for (int i = 0; i < texts.size(); i++) {
+            Arrays.fill(row, 0f);
+            hasher.hash(texts.get(i), accumulate);
+            normalize(row);
+            matrix.setRow(i, row);
+        }
+        return matrix;
+    }
+
+    private static void normalize(float[] row) {
+        double sum = 0;
+        for (float v : row) {
+            sum += (double) v * v;
+        }
+        if (sum == 0) {
+            return;
+        }
+        float inv = (float) (1.0 / Math.sqrt(sum));
+        for (int i = 0; i < row.length; i++) {
+            row[i] *= inv;
+        }
+    }
+
+    @Override
+    public int getDimensions() {
+        return hasher.dimensions();
+    }
+
+    @Override
+    public String getModelName() {
+        CorpusIdf.Snapshot snapshot = snapshot();
+        return "local-hash-" + hasher.dimensions() + (snapshot == null ? "" : "-idf" + snapshot.generation());
+    }
+
+    private CorpusIdf.Snapshot snapshot() {
+        CorpusIdf corpus = idfEnabled ? idf.getIfAvailable() : null;
+        return corpus == null ? null : corpus.snapshot();
+    }
+}
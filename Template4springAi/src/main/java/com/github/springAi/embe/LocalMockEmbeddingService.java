@@ -9,8 +9,6 @@ import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.List;
 import java.util.Random;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 @Slf4j
 @Service
@@ -18,35 +16,38 @@ import java.util.stream.IntStream;
 public class LocalMockEmbeddingService implements EmbeddingService {
 
     private final EmbeddingServiceProperties properties;
-    private final MessageDigest digest;
 
     public LocalMockEmbeddingService(EmbeddingServiceProperties properties) {
         this.properties = properties;
-        try {
-            this.digest = MessageDigest.getInstance("SHA-256");
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException(e);
-        }
         log.info("Initialized Local Mock Embedding Service with dimension: {}", properties.getDimensions());
     }
 
     @Override
-    public List<List<Double>> embed(List<String> texts) {
+    public EmbeddingMatrix embedMatrix(List<String> texts) {
         log.debug("Generating mock embeddings for {} texts", texts.size());
-        return texts.stream().map(this::embed).collect(Collectors.toList());
+        EmbeddingMatrix matrix = new EmbeddingMatrix(texts.size(), getDimensions());
+        for (int i = 0; i < texts.size(); i++) {
+            embed(texts.get(i), matrix, i);
+        }
+        return matrix;
     }
-    
-    private List<Double> embed(String text) {
-        // Create a deterministic embedding based on the hash of the text
-        byte[] hash = digest.digest(text.getBytes(StandardCharsets.UTF_8));
+
+    private void embed(String text, EmbeddingMatrix matrix, int row) {
+        // Create a deterministic embedding based on the hash of the text.
+        // MessageDigest is stateful, so each call gets its own instance.
+        byte[] hash;
+        try {
+            hash = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
         long seed = bytesToLong(hash);
         Random random = new Random(seed);
 
-        // Generate a normalized vector of the configured dimension
-        return IntStream.range(0, getDimensions())
-                .mapToDouble(i -> random.nextDouble() * 2 - 1) // Range [-1.0, 1.0]
-                .boxed()
-                .collect(Collectors.toList());
+        // Generate a vector of the configured dimension
+        for (int i = 0; i < matrix.dimensions(); i++) {
+            matrix.set(row, i, (float) (random.nextDouble() * 2 - 1)); // Range [-1.0, 1.0]
+        }
     }
 
     @Override
@@ -54,6 +55,11 @@ public class LocalMockEmbeddingService implements EmbeddingService {
         return properties.getDimensions();
     }
 
+    @Override
+    public String getModelName() {
+        return "mock-sha256";
+    }
+
     private static long bytesToLong(byte[] bytes) {
         long value = 0;
         for (int i = 0; i < Math.min(bytes.length, 8); i++) {
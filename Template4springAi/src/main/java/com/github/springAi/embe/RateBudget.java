@@ -0,0 +1,65 @@
+package com.github.springAi.embe;
+
+/**
+ * A per-minute budget (requests or tokens) refilled continuously, with additive-increase /
+ * multiplicative-decrease on the rate: {@link #throttle()} halves it when the provider pushes back,
+ * {@link #recover()} grows it back towards the configured ceiling on success.
+ * <p>
+ * Callers reserve before sending and sleep for the returned delay outside the lock, so the
+ * budget may go briefly negative; a single reservation larger than the whole budget still proceeds.
+ */
+final class RateBudget {
+
+    private static final double NANOS_PER_MINUTE = 60e9;
+
+    private final double ceilingPerMinute;
+    private double ratePerMinute;
+    private double available;
+    private long lastRefill;
+
+    /**
+     * @param perMinute the provider limit; 0 or less disables the budget.
+     */
+    RateBudget(double perMinute) {
+        this.ceilingPerMinute = perMinute;
+        this.ratePerMinute = perMinute;
+        this.available = perMinute;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * @return how long the caller must wait before using {@code amount}, in nanoseconds.
+     */
+    synchronized long reserve(double amount) {
+        if (ceilingPerMinute <= 0) {
+            return 0;
+        }
+        refill();
+        available -= amount;
+        return available >= 0 ? 0 : (long) (-available / ratePerMinute * NANOS_PER_MINUTE);
+    }
+
+    synchronized void throttle() {
+        if (ceilingPerMinute > 0) {
+            refill();
+            ratePerMinute = Math.max(ceilingPerMinute * 0.05, ratePerMinute * 0.5);
+            available = Math.min(available, 0);
+        }
+    }
+
+    synchronized void recover() {
+        if (ceilingPerMinute > 0 && ratePerMinute < ceilingPerMinute) {
+            ratePerMinute = Math.min(ceilingPerMinute, ratePerMinute + ceilingPerMinute * 0.05);
+        }
+    }
+
+    synchronized double ratePerMinute() {
+        return ratePerMinute;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        available = Math.min(ratePerMinute, available + (now - lastRefill) / NANOS_PER_MINUTE * ratePerMinute);
+        lastRefill = now;
+    }
+}
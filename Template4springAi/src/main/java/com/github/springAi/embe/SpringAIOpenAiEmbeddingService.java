@@ -1,8 +1,10 @@
 package com.github.springAi.embe;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.embedding.EmbeddingModel;
-import org.springframework.ai.embedding.EmbeddingRequest;
 import org.springframework.ai.openai.OpenAiEmbeddingOptions;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
@@ -16,47 +18,81 @@ import java.util.List;
 @ConditionalOnProperty(name = "embedding-service.provider", havingValue = "openai")
 public class SpringAIOpenAiEmbeddingService implements EmbeddingService {
 
-    private final EmbeddingModel embeddingClient;
     private final EmbeddingServiceProperties properties;
+    private final EmbeddingDispatcher dispatcher;
+    private final EmbeddingBatchPlanner planner;
+    private final Counter batchCounter;
+    private final DistributionSummary batchTokens;
+    private final DistributionSummary batchItems;
 
-    public SpringAIOpenAiEmbeddingService(EmbeddingModel embeddingClient, EmbeddingServiceProperties properties) {
-        this.embeddingClient = embeddingClient;
+    public SpringAIOpenAiEmbeddingService(EmbeddingModel embeddingClient, EmbeddingServiceProperties properties,
+                                          MeterRegistry meterRegistry) {
         this.properties = properties;
-        log.info("Initialized OpenAI Embedding Service with model: {}", properties.getOpenai().getEmbeddingModel());
+        String model = properties.getOpenai().getEmbeddingModel();
+        // Use Spring AI options to specify the model at runtime
+        this.dispatcher = new EmbeddingDispatcher(embeddingClient,
+                OpenAiEmbeddingOptions.builder()
+                        .model(model)
+                        .build(),
+                properties.getDispatch());
+        this.planner = new EmbeddingBatchPlanner(properties.getMaxTokensPerBatch(), properties.getBatchSize(),
+                EmbeddingBatchPlanner::estimateTokens);
+        // batches/sec is the rate of embedding.batches
+        this.batchCounter = Counter.builder("embedding.batches")
+                .description("Embedding requests sent to the provider")
+                .tag("model", model)
+                .register(meterRegistry);
+        this.batchTokens = DistributionSummary.builder("embedding.batch.tokens")
+                .description("Estimated tokens per embedding request")
+                .tag("model", model)
+                .publishPercentiles(0.5, 0.95)
+                .register(meterRegistry);
+        this.batchItems = DistributionSummary.builder("embedding.batch.items")
+                .description("Texts per embedding request")
+                .tag("model", model)
+                .register(meterRegistry);
+        log.info("Initialized OpenAI Embedding Service with model: {}", model);
     }
 
     @Override
-    public List<List<Double>> embed(List<String> texts) {
+    public EmbeddingMatrix embedMatrix(List<String> texts) {
         if (CollectionUtils.isEmpty(texts)) {
-            return new ArrayList<>();
+            return new EmbeddingMatrix(0, getDimensions());
         }
 
-        List<List<Double>> allEmbeddings = new ArrayList<>();
-        int batchSize = properties.getBatchSize();
-        
-        // Process the texts in batches
-        for (int i = 0; i < texts.size(); i += batchSize) {
-            int end = Math.min(i + batchSize, texts.size());
-            List<String> batch = texts.subList(i, end);
-
-            log.debug("Embedding batch of {} texts (from index {} to {})", batch.size(), i, end -1);
-            
-            // Use Spring AI options to specify the model at runtime
-            EmbeddingRequest request = new EmbeddingRequest(batch,
-                    OpenAiEmbeddingOptions.builder()
-                            .withModel(properties.getOpenai().getEmbeddingModel())
-                            .build());
-
-            allEmbeddings.addAll(embeddingClient.call(request).getResults().stream()
-                    .map(e -> e.getOutput())
-                    .toList());
+        // Pack by estimated tokens; the dispatcher sends the batches concurrently, in plan order
+        List<EmbeddingBatchPlanner.Batch> plan = planner.plan(texts);
+        List<List<String>> batches = new ArrayList<>(plan.size());
+        for (EmbeddingBatchPlanner.Batch batch : plan) {
+            batches.add(batch.texts());
+            batchCounter.increment();
+            batchTokens.record(batch.tokens());
+            batchItems.record(batch.texts().size());
+        }
+        log.debug("Embedding {} texts in {} batches", texts.size(), batches.size());
+        List<float[]> vectors = dispatcher.embed(batches);
+        if (vectors.isEmpty()) {
+            return new EmbeddingMatrix(0, getDimensions());
         }
 
-        return allEmbeddings;
+        // Back to input order; the provider decides the width (e.g. a model with reduced dimensions)
+        EmbeddingMatrix matrix = new EmbeddingMatrix(texts.size(), vectors.get(0).length);
+        int next = 0;
+        for (EmbeddingBatchPlanner.Batch batch : plan) {
+            for (int index : batch.indexes()) {
+                matrix.setRow(index, vectors.get(next++));
+            }
+        }
+        return matrix;
     }
 
     @Override
     public int getDimensions() {
         return properties.getDimensions();
     }
+
+    @Override
+    public String getModelName() {
+        return properties.getOpenai().getEmbeddingModel();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.github.springAi.parse;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A bounded hand-off between two pipeline stages. {@link #put} blocks while the queue is full,
+ * which is what pushes back on the producing stage.
+ */
+final class BoundedChannel<T> {
+
+    private static final Object END = new Object();
+
+    private final BlockingQueue<Object> queue;
+
+    BoundedChannel(int capacity) {
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+    }
+
+    void put(T item) throws InterruptedException {
+        queue.put(item);
+    }
+
+    /**
+     * @return the next item, or null once the channel was closed and this consumer reached the end.
+     */
+    @SuppressWarnings("unchecked")
+    T take() throws InterruptedException {
+        Object item = queue.take();
+        return item == END ? null : (T) item;
+    }
+
+    /**
+     * Signals end-of-stream to each of the given number of consumers.
+     */
+    void close(int consumers) throws InterruptedException {
+        for (int i = 0; i < consumers; i++) {
+            queue.put(END);
+        }
+    }
+}
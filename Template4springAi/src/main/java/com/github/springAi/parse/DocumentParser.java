@@ -2,7 +2,33 @@ package com.github.springAi.parse;
 
 import com.github.springAi.domain.IngestionCandidate;
 import org.springframework.core.io.Resource;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
 public interface DocumentParser {
     boolean supports(String mimeType, String extension);
     IngestionCandidate parse(Resource resource);
-}
\ No newline at end of file
+
+    /**
+     * Whether {@link #stream} reads files of this extension incrementally. Large files of other
+     * extensions are parsed whole like any other, since streaming them would save nothing.
+     */
+    default boolean streams(String extension) {
+        return false;
+    }
+
+    /**
+     * Hands the document's text to {@code text} piece by piece in reading order, without holding all of
+     * it, for files too large to parse into one string. The document's metadata goes into {@code metadata}
+     * before the first piece of text, so every chunk cut from the text can carry it. Parsers that cannot
+     * stream fall back to {@link #parse}.
+     */
+    default void stream(Resource resource, Map<String, Object> metadata, Consumer<String> text) {
+        IngestionCandidate candidate = parse(resource);
+        if (candidate.getMetadata() != null) {
+            metadata.putAll(candidate.getMetadata());
+        }
+        text.accept(candidate.getContent());
+    }
+}
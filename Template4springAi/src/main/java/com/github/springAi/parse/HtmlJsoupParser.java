@@ -3,17 +3,34 @@ package com.github.springAi.parse;
 import com.github.springAi.domain.IngestionCandidate;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.StreamParser;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @Component
 public class HtmlJsoupParser implements DocumentParser {
 
+    private static final Set<String> SKIPPED = Set.of("script", "style", "nav", "footer");
+    private static final Set<String> BLOCKS = Set.of("p", "div", "li", "ul", "ol", "dl", "dt", "dd", "pre",
+            "blockquote", "table", "tr", "td", "th", "section", "article", "header", "main", "aside",
+            "figure", "figcaption", "h1", "h2", "h3", "h4", "h5", "h6", "body");
+
     @Override
     public boolean supports(String mimeType, String extension) {
         return "html".equalsIgnoreCase(extension) || "htm".equalsIgnoreCase(extension);
@@ -45,4 +62,80 @@ public class HtmlJsoupParser implements DocumentParser {
             throw new RuntimeException("Failed to parse HTML", e);
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public boolean streams(String extension) {
+        return true;
+    }
+
+    /**
+     * Uses jsoup's {@link StreamParser}: elements are visited as they close, and each block is emitted
+     * and removed from the tree at once, so only the currently open elements are held in memory.
+     * The title closes in the head, ahead of any block, so it is in {@code metadata} before the first text.
+     */
+    @Override
+    public void stream(Resource resource, Map<String, Object> metadata, Consumer<String> text) {
+        metadata.put("title", "");
+        metadata.put("source", resource.getFilename());
+        metadata.put("type", "html");
+        try (Reader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8);
+             StreamParser streamer = new StreamParser(Parser.htmlParser()).parse(reader, "")) {
+            Iterator<Element> elements = streamer.iterator();
+            while (elements.hasNext()) {
+                Element element = elements.next();
+                String tag = element.normalName();
+                if ("title".equals(tag)) {
+                    metadata.put("title", element.text());
+                    element.remove();
+                } else if (SKIPPED.contains(tag) || isInsideSkipped(element)) {
+                    element.remove();
+                } else if (BLOCKS.contains(tag)) {
+                    emitPrecedingInline(element, text);
+                    emit(element.text(), text);
+                    element.remove();
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            throw new RuntimeException("Failed to parse HTML", e);
+        }
+    }
+
+    private static boolean isInsideSkipped(Element element) {
+        for (Element parent = element.parent(); parent != null; parent = parent.parent()) {
+            if (SKIPPED.contains(parent.normalName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Inline text ahead of a block in the same parent comes first in reading order; emit it before the block.
+     */
+    private static void emitPrecedingInline(Element block, Consumer<String> text) {
+        Element parent = block.parent();
+        if (parent == null) {
+            return;
+        }
+        StringBuilder inline = new StringBuilder();
+        for (Node sibling : List.copyOf(parent.childNodes())) {
+            if (sibling == block) {
+                break;
+            }
+            if (sibling instanceof TextNode textNode) {
+                inline.append(textNode.text());
+            } else if (sibling instanceof Element element) {
+                inline.append(' ').append(element.text()).append(' ');
+            }
+            sibling.remove();
+        }
+        emit(inline.toString(), text);
+    }
+
+    private static void emit(String blockText, Consumer<String> text) {
+        String trimmed = blockText.strip();
+        if (!trimmed.isEmpty()) {
+            text.accept(trimmed + "\n");
+        }
+    }
+}
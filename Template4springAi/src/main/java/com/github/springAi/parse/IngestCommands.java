@@ -6,6 +6,8 @@ import org.springframework.shell.standard.ShellMethod;
 import org.springframework.shell.standard.ShellOption;
 
 import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 @ShellComponent
 @RequiredArgsConstructor
@@ -27,4 +29,19 @@ public class IngestCommands {
             return "Error: " + e.getMessage();
         }
     }
+
+    @ShellMethod(key = "ingest-dir", value = "Ingest every supported file in a directory through the parallel pipeline")
+    public String ingestDir(@ShellOption(help = "Path to the directory") String path,
+                            @ShellOption(help = "Descend into sub-directories", defaultValue = "true") boolean recursive) {
+        Path directory = Path.of(path);
+        if (!Files.isDirectory(directory)) {
+            return "Directory not found: " + path;
+        }
+
+        try {
+            return ingestionService.ingestDirectory(directory, recursive).summary();
+        } catch (Exception e) {
+            return "Error: " + e.getMessage();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.github.springAi.parse;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Remembers which content has been fully ingested, so re-runs skip unchanged files and re-embed
+ * only the chunks of a changed file that are new.
+ */
+public interface IngestionLedger {
+
+    /**
+     * @return true when content with this SHA-256 has already been stored completely for {@code sourcePath}.
+     */
+    boolean isIngested(String sourcePath, String sha256);
+
+    /**
+     * Finds the document previously ingested from {@code sourcePath}, or creates a pending one.
+     *
+     * @return its id and the segments currently stored for it.
+     */
+    DocumentState open(String sourcePath, Map<String, Object> metadata);
+
+    /**
+     * Records that every chunk of {@code sha256} is now stored under {@code documentId}.
+     */
+    void markIngested(UUID documentId, String sha256);
+
+    /**
+     * @param storedChunks segment id to its chunk_sha256, for the segments already stored.
+     */
+    record DocumentState(UUID documentId, Map<UUID, String> storedChunks) {}
+}
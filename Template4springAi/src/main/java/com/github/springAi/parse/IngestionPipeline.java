@@ -0,0 +1,562 @@
+package com.github.springAi.parse;
+
+import com.github.springAi.config.IngestionProperties;
+import com.github.springAi.domain.DocumentSegment;
+import com.github.springAi.domain.IngestionCandidate;
+import com.github.springAi.embe.EmbeddingMatrix;
+import com.github.springAi.embe.EmbeddingService;
+import com.github.springAi.embe.EmbeddingServiceProperties;
+import com.github.springAi.service.StageObservations;
+import com.github.springAi.service.TokenCounter;
+import com.github.springAi.vector.VectorStoreRepository;
+import com.knuddels.jtokkit.Encodings;
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.EncodingType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.transformer.splitter.TokenTextSplitter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Multi-file ingestion as four stages joined by bounded queues:
+ * <ol>
+ *     <li>parse: one virtual thread per file, at most {@code parser-concurrency} at once;</li>
+ *     <li>split: a fixed pool of platform threads running the (CPU-bound) token splitter;</li>
+ *     <li>embed: chunks grouped into embedding-service.batch-size requests, {@code embedding-concurrency} in flight;</li>
+ *     <li>store: a single writer calling upsertBatch with {@code store-batch-size} rows.</li>
+ * </ol>
+ * A slow stage fills its input queue, which blocks the stage before it, so memory stays bounded
+ * however many files are queued. A file that fails to parse is counted and skipped; an embedding or
+ * store failure stops further work, lets the queues drain, and is rethrown.
+ * <p>
+ * With an {@link IngestionLedger} (the Postgres store), re-runs are incremental: a file whose SHA-256
+ * (of its bytes) is already recorded is skipped without being parsed, and for a changed file only chunks whose chunk_sha256
+ * is not stored yet are embedded. Chunks that disappeared are deleted once the new ones are stored,
+ * and only then is the new file hash recorded, so an interrupted run is resumed, never skipped.
+ * The in-process stores have no ledger: a file's document id is derived from its path, and its stored
+ * chunks are found by one scan of the store per run, so a changed file is still diffed chunk by chunk.
+ * <p>
+ * Files of at least {@code streaming.threshold} whose parser really streams them (HTML, DOCX) skip the split stage: their parser streams text into a
+ * {@link StreamingChunker} on the parse thread, which puts chunks straight onto the embed queue. The
+ * queue blocks the parser, so such a file costs a chunk buffer plus the queued batches, whatever its size.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IngestionPipeline {
+
+    private final List<DocumentParser> parsers;
+    private final TokenTextSplitter textSplitter;
+    private final TokenCounter tokenCounter;
+    private final EmbeddingService embeddingService;
+    private final VectorStoreRepository vectorStore;
+    private final IngestionProperties properties;
+    private final EmbeddingServiceProperties embeddingProperties;
+    private final ObjectProvider<IngestionLedger> ledger; // only with the Postgres store
+    private final StageObservations observations;
+    // The encoding TokenTextSplitter uses, so streamed and split chunks come out alike
+    private final Encoding chunkEncoding = Encodings.newLazyEncodingRegistry().getEncoding(EncodingType.CL100K_BASE);
+
+    private record Parsed(Path file, IngestionCandidate candidate, UUID documentId, Map<UUID, String> storedChunks) {}
+
+    /**
+     * A document whose new chunks are still on their way to the store.
+     */
+    private record PendingDocument(String sha256, Set<UUID> staleIds, AtomicInteger remaining) {}
+
+    private record EmbeddedBatch(List<DocumentSegment> segments, List<float[]> embeddings) {}
+
+    public boolean supports(Path file) {
+        return parserFor(file).isPresent();
+    }
+
+    public IngestionReport ingest(List<Path> files) throws InterruptedException {
+        int splitterThreads = properties.getSplitterThreads() > 0
+                ? properties.getSplitterThreads() : Runtime.getRuntime().availableProcessors();
+        int embedPermits = Math.max(1, properties.getEmbeddingConcurrency());
+
+        BoundedChannel<Parsed> parsedQueue = new BoundedChannel<>(properties.getQueueCapacity());
+        BoundedChannel<DocumentSegment> chunkQueue = new BoundedChannel<>(properties.getQueueCapacity() * 16);
+        BoundedChannel<EmbeddedBatch> embeddedQueue = new BoundedChannel<>(properties.getQueueCapacity());
+
+        StageMeter parseStage = new StageMeter("parse", properties.getParserConcurrency());
+        StageMeter splitStage = new StageMeter("split", splitterThreads);
+        StageMeter embedStage = new StageMeter("embed", embedPermits);
+        StageMeter storeStage = new StageMeter("store", 1);
+        AtomicInteger failedFiles = new AtomicInteger();
+        AtomicInteger unchangedFiles = new AtomicInteger();
+        LongAdder reusedChunks = new LongAdder();
+        Map<UUID, PendingDocument> pending = new ConcurrentHashMap<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Map<UUID, Map<UUID, String>> storedByDocument = ledger.getIfAvailable() == null ? storedChunks(files) : Map.of();
+
+        long start = System.nanoTime();
+        try (ExecutorService virtualThreads = Executors.newVirtualThreadPerTaskExecutor();
+             ExecutorService splitterPool = Executors.newFixedThreadPool(splitterThreads)) {
+
+            // Stage 4: single writer
+            Future<?> writer = virtualThreads.submit(() -> {
+                writeLoop(embeddedQueue, storeStage, pending, failure);
+                return null;
+            });
+
+            // Stage 3: batcher feeding bounded concurrent embedding calls
+            Semaphore embedInFlight = new Semaphore(embedPermits);
+            Future<?> batcher = virtualThreads.submit(() -> {
+                batchLoop(chunkQueue, embeddedQueue, embedInFlight, embedPermits, virtualThreads, embedStage, failure);
+                return null;
+            });
+
+            // Stage 2: splitters
+            List<Future<?>> splitters = new ArrayList<>(splitterThreads);
+            for (int i = 0; i < splitterThreads; i++) {
+                splitters.add(splitterPool.submit(() -> {
+                    splitLoop(parsedQueue, chunkQueue, splitStage, pending, reusedChunks, failedFiles);
+                    return null;
+                }));
+            }
+
+            // Stage 1: parsers
+            Semaphore parsing = new Semaphore(Math.max(1, properties.getParserConcurrency()));
+            List<Future<?>> parses = new ArrayList<>(files.size());
+            for (Path file : files) {
+                if (failure.get() != null) {
+                    break; // nothing more would be stored, so don't parse (or open ledger rows for) the rest
+                }
+                parsing.acquire();
+                parses.add(virtualThreads.submit(() -> {
+                    try {
+                        if (isLarge(file)) {
+                            if (!stream(file, chunkQueue, parseStage, splitStage, pending, reusedChunks, storedByDocument)) {
+                                unchangedFiles.incrementAndGet();
+                            }
+                        } else {
+                            Parsed parsed = parse(file, parseStage, storedByDocument);
+                            if (parsed == null) {
+                                unchangedFiles.incrementAndGet();
+                            } else {
+                                parsedQueue.put(parsed);
+                            }
+                        }
+                    } catch (RuntimeException e) {
+                        log.error("Failed to parse {}", file, e);
+                        failedFiles.incrementAndGet();
+                    } finally {
+                        parsing.release();
+                    }
+                    return null;
+                }));
+            }
+
+            // Shut down stage by stage, each once everything upstream has finished
+            awaitAll(parses);
+            parsedQueue.close(splitterThreads);
+            awaitAll(splitters);
+            chunkQueue.close(1);
+            awaitAll(List.of(batcher, writer));
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        IngestionReport report = new IngestionReport(files.size(), unchangedFiles.get(), failedFiles.get(),
+                splitStage.items.sum(), reusedChunks.sum(), storeStage.items.sum(), elapsed,
+                List.of(parseStage.stats(), splitStage.stats(), embedStage.stats(), storeStage.stats()));
+        log.info(report.summary());
+        if (failure.get() != null) {
+            throw new IllegalStateException("Ingestion aborted: " + failure.get().getMessage(), failure.get());
+        }
+        return report;
+    }
+
+    /**
+     * The chunks already stored for each of these files' documents, as segment id to chunk_sha256.
+     */
+    private Map<UUID, Map<UUID, String>> storedChunks(List<Path> files) {
+        Map<UUID, Map<UUID, String>> stored = new HashMap<>();
+        for (Path file : files) {
+            stored.put(documentId(file), new HashMap<>());
+        }
+        vectorStore.forEachSegment(segment -> {
+            Map<UUID, String> chunks = stored.get(segment.getDocumentId());
+            if (chunks != null) {
+                chunks.put(segment.getId(), String.valueOf(segment.getMetadata().get("chunk_sha256")));
+            }
+        });
+        return stored;
+    }
+
+    /**
+     * Stable per source path, so re-ingesting a changed file replaces the chunks of its previous version.
+     */
+    private static UUID documentId(Path file) {
+        return UUID.nameUUIDFromBytes(file.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return null when the ledger already holds this exact content.
+     */
+    private Parsed parse(Path file, StageMeter meter, Map<UUID, Map<UUID, String>> storedByDocument) {
+        long t0 = System.nanoTime();
+        DocumentParser parser = parserFor(file).orElseThrow(
+                () -> new IllegalArgumentException("No parser found for extension: " + extension(file)));
+        // Keyed by the file's bytes, like streamed files, so an unchanged file is never parsed
+        String sha256 = ContentHasher.computeHash(file);
+
+        IngestionLedger documents = ledger.getIfAvailable();
+        if (documents != null && documents.isIngested(file.toString(), sha256)) {
+            log.debug("Skipping unchanged {}", file);
+            meter.record(1, t0);
+            return null;
+        }
+        IngestionCandidate candidate = observations.observe(StageObservations.INGEST, "parse",
+                () -> parser.parse(new FileSystemResource(file)));
+        candidate.setContentHash(sha256);
+
+        Parsed parsed;
+        if (documents == null) {
+            UUID documentId = documentId(file);
+            parsed = new Parsed(file, candidate, documentId, storedByDocument.getOrDefault(documentId, Map.of()));
+        } else {
+            IngestionLedger.DocumentState state = documents.open(file.toString(), candidate.getMetadata());
+            parsed = new Parsed(file, candidate, state.documentId(), state.storedChunks());
+        }
+        meter.record(1, t0);
+        return parsed;
+    }
+
+    private boolean isLarge(Path file) {
+        if (!parserFor(file).map(parser -> parser.streams(extension(file))).orElse(false)) {
+            return false;
+        }
+        try {
+            return Files.size(file) >= properties.getStreaming().getThreshold().toBytes();
+        } catch (IOException e) {
+            return false; // let the regular parse report it
+        }
+    }
+
+    /**
+     * Parse and split in one pass, handing chunks to the embed stage as the parser produces text.
+     *
+     * @return false when the ledger already holds this exact file.
+     */
+    private boolean stream(Path file, BoundedChannel<DocumentSegment> out, StageMeter parseMeter, StageMeter splitMeter,
+                           Map<UUID, PendingDocument> pending, LongAdder reusedChunks,
+                           Map<UUID, Map<UUID, String>> storedByDocument) {
+        long t0 = System.nanoTime();
+        DocumentParser parser = parserFor(file).orElseThrow(
+                () -> new IllegalArgumentException("No parser found for extension: " + extension(file)));
+        String sha256 = ContentHasher.computeHash(file);
+
+        IngestionLedger documents = ledger.getIfAvailable();
+        UUID documentId;
+        Map<UUID, String> storedChunks;
+        if (documents == null) {
+            documentId = documentId(file);
+            storedChunks = storedByDocument.getOrDefault(documentId, Map.of());
+        } else if (documents.isIngested(file.toString(), sha256)) {
+            log.debug("Skipping unchanged {}", file);
+            return false;
+        } else {
+            IngestionLedger.DocumentState state = documents.open(file.toString(),
+                    Map.of("file_name", file.getFileName().toString(), "streamed", true));
+            documentId = state.documentId();
+            storedChunks = state.storedChunks();
+        }
+
+        // This producer holds one count until its last chunk is queued, so the writer can't complete early
+        Set<UUID> staleIds = new HashSet<>(storedChunks.keySet());
+        PendingDocument document = new PendingDocument(sha256, staleIds, new AtomicInteger(1));
+        pending.put(documentId, document);
+
+        // Filled by the parser before its first text, so before the first chunk is cut
+        Map<String, Object> parsedMetadata = new HashMap<>();
+        AtomicReference<Map<String, Object>> documentMetadata = new AtomicReference<>();
+        Map<String, Integer> occurrences = new HashMap<>();
+        AtomicInteger index = new AtomicInteger();
+        IngestionProperties.ChunkingProperties chunking = properties.getChunking();
+        StreamingChunker chunker = new StreamingChunker(chunkEncoding, chunking.getChunkSize(),
+                chunking.getMinChunkSizeChars(), chunking.getMinChunkLengthToEmbed(),
+                properties.getStreaming().getChunkOverlap(), chunking.isKeepSeparator(), chunk -> {
+            Map<String, Object> metadata = documentMetadata.updateAndGet(
+                    known -> known != null ? known : documentMetadata(file, sha256, parsedMetadata));
+            DocumentSegment segment = toSegment(documentId, metadata, index.getAndIncrement(), chunk, occurrences);
+            if (staleIds.remove(segment.getId())) {
+                reusedChunks.increment();
+                return;
+            }
+            document.remaining().incrementAndGet();
+            try {
+                out.put(segment);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while streaming " + file, e);
+            }
+        });
+        observations.observe(StageObservations.INGEST, "parse", () -> {
+            parser.stream(new FileSystemResource(file), parsedMetadata, chunker::append);
+            chunker.finish();
+        });
+
+        splitMeter.items.add(chunker.chunks());
+        if (document.remaining().decrementAndGet() == 0) {
+            pending.remove(documentId);
+            complete(documentId, document);
+        }
+        parseMeter.record(1, t0);
+        log.debug("Streamed {} into {} chunks", file.getFileName(), chunker.chunks());
+        return true;
+    }
+
+    private void splitLoop(BoundedChannel<Parsed> in, BoundedChannel<DocumentSegment> out, StageMeter meter,
+                           Map<UUID, PendingDocument> pending, LongAdder reusedChunks,
+                           AtomicInteger failedFiles) throws InterruptedException {
+        Parsed parsed;
+        while ((parsed = in.take()) != null) {
+            long t0 = System.nanoTime();
+            List<DocumentSegment> segments;
+            try {
+                Parsed current = parsed;
+                segments = observations.observe(StageObservations.INGEST, "split", () -> split(current));
+            } catch (RuntimeException e) {
+                log.error("Failed to split {}", parsed.file(), e);
+                failedFiles.incrementAndGet();
+                continue;
+            }
+            meter.record(segments.size(), t0);
+
+            // Segment ids encode the chunk hash, so a stored id means an unchanged chunk
+            Set<UUID> staleIds = new HashSet<>(parsed.storedChunks().keySet());
+            List<DocumentSegment> fresh = new ArrayList<>(segments.size());
+            for (DocumentSegment segment : segments) {
+                if (!staleIds.remove(segment.getId())) {
+                    fresh.add(segment);
+                }
+            }
+            reusedChunks.add(segments.size() - fresh.size());
+
+            PendingDocument document = new PendingDocument(parsed.candidate().getContentHash(), staleIds,
+                    new AtomicInteger(fresh.size()));
+            if (fresh.isEmpty()) {
+                complete(parsed.documentId(), document);
+                continue;
+            }
+            pending.put(parsed.documentId(), document);
+            for (DocumentSegment segment : fresh) {
+                out.put(segment);
+            }
+        }
+    }
+
+    /**
+     * Every new chunk of the document is stored: drop the chunks it no longer has, then record its hash.
+     */
+    private void complete(UUID documentId, PendingDocument document) {
+        if (!document.staleIds().isEmpty()) {
+            vectorStore.deleteByIds(document.staleIds());
+        }
+        IngestionLedger documents = ledger.getIfAvailable();
+        if (documents != null) {
+            documents.markIngested(documentId, document.sha256());
+        }
+    }
+
+    private List<DocumentSegment> split(Parsed parsed) {
+        IngestionCandidate candidate = parsed.candidate();
+        Map<String, Object> documentMetadata = documentMetadata(parsed.file(), candidate.getContentHash(),
+                candidate.getMetadata());
+
+        List<Document> chunks = textSplitter.apply(List.of(new Document(candidate.getContent(), documentMetadata)));
+        List<DocumentSegment> segments = new ArrayList<>(chunks.size());
+        Map<String, Integer> occurrences = new HashMap<>();
+        for (int i = 0; i < chunks.size(); i++) {
+            segments.add(toSegment(parsed.documentId(), chunks.get(i).getMetadata(), i, chunks.get(i).getText(),
+                    occurrences));
+        }
+        log.debug("Split {} into {} chunks", parsed.file().getFileName(), segments.size());
+        return segments;
+    }
+
+    private static Map<String, Object> documentMetadata(Path file, String sha256, Map<String, Object> parsed) {
+        Map<String, Object> documentMetadata = new HashMap<>();
+        if (parsed != null) {
+            documentMetadata.putAll(parsed);
+        }
+        documentMetadata.put("sha256", sha256);
+        documentMetadata.put("file_name", file.getFileName().toString());
+        documentMetadata.put("source_path", file.toString());
+        return documentMetadata;
+    }
+
+    private DocumentSegment toSegment(UUID documentId, Map<String, Object> documentMetadata, int index, String content,
+                                      Map<String, Integer> occurrences) {
+        String chunkSha256 = ContentHasher.computeHash(content);
+        Map<String, Object> metadata = new HashMap<>(documentMetadata);
+        metadata.put("chunk_index", index);
+        metadata.put("chunk_sha256", chunkSha256);
+        metadata.put(TokenCounter.TOKEN_COUNT, tokenCounter.count(content));
+        // Stable per (document, chunk content): an unchanged chunk keeps its id across re-ingests.
+        // The occurrence count keeps repeated chunks (boilerplate) apart.
+        int occurrence = occurrences.merge(chunkSha256, 1, Integer::sum);
+        UUID segmentId = UUID.nameUUIDFromBytes((documentId + ":" + chunkSha256 + ":" + occurrence)
+                .getBytes(StandardCharsets.UTF_8));
+        return new DocumentSegment(segmentId, documentId, metadata, content);
+    }
+
+    private void batchLoop(BoundedChannel<DocumentSegment> in, BoundedChannel<EmbeddedBatch> out,
+                           Semaphore inFlight, int permits, ExecutorService executor, StageMeter meter,
+                           AtomicReference<Throwable> failure) throws InterruptedException {
+        int batchSize = Math.max(1, embeddingProperties.getBatchSize());
+        List<DocumentSegment> batch = new ArrayList<>(batchSize);
+        DocumentSegment segment;
+        while ((segment = in.take()) != null) {
+            batch.add(segment);
+            if (batch.size() == batchSize) {
+                submitEmbedding(batch, out, inFlight, executor, meter, failure);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            submitEmbedding(batch, out, inFlight, executor, meter, failure);
+        }
+        inFlight.acquire(permits); // wait for the last requests before ending the writer's input
+        out.close(1);
+    }
+
+    private void submitEmbedding(List<DocumentSegment> batch, BoundedChannel<EmbeddedBatch> out, Semaphore inFlight,
+                                 ExecutorService executor, StageMeter meter, AtomicReference<Throwable> failure)
+            throws InterruptedException {
+        inFlight.acquire();
+        executor.submit(() -> {
+            try {
+                if (failure.get() != null) {
+                    return null; // aborting: keep draining, do no more work
+                }
+                long t0 = System.nanoTime();
+                List<String> texts = batch.stream().map(DocumentSegment::getContent).toList();
+                EmbeddingMatrix vectors = observations.observe(StageObservations.INGEST, "embed",
+                        () -> embeddingService.embedMatrix(texts));
+                if (vectors.rows() != batch.size()) {
+                    throw new IllegalStateException("Embedding provider returned " + vectors.rows()
+                            + " vectors for " + batch.size() + " chunks");
+                }
+                List<float[]> embeddings = vectors.toRows();
+                meter.record(batch.size(), t0);
+                out.put(new EmbeddedBatch(batch, embeddings));
+            } catch (Exception e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                inFlight.release();
+            }
+            return null;
+        });
+    }
+
+    private void writeLoop(BoundedChannel<EmbeddedBatch> in, StageMeter meter, Map<UUID, PendingDocument> pending,
+                           AtomicReference<Throwable> failure) throws InterruptedException {
+        int storeBatchSize = Math.max(1, properties.getStoreBatchSize());
+        List<DocumentSegment> segments = new ArrayList<>(storeBatchSize);
+        List<float[]> embeddings = new ArrayList<>(storeBatchSize);
+        EmbeddedBatch batch;
+        while ((batch = in.take()) != null) {
+            segments.addAll(batch.segments());
+            embeddings.addAll(batch.embeddings());
+            if (segments.size() >= storeBatchSize) {
+                write(segments, embeddings, meter, pending, failure);
+                segments = new ArrayList<>(storeBatchSize);
+                embeddings = new ArrayList<>(storeBatchSize);
+            }
+        }
+        if (!segments.isEmpty()) {
+            write(segments, embeddings, meter, pending, failure);
+        }
+    }
+
+    private void write(List<DocumentSegment> segments, List<float[]> embeddings, StageMeter meter,
+                       Map<UUID, PendingDocument> pending, AtomicReference<Throwable> failure) {
+        if (failure.get() != null) {
+            return;
+        }
+        long t0 = System.nanoTime();
+        try {
+            observations.observe(StageObservations.INGEST, "store", () -> vectorStore.upsertBatch(segments, embeddings));
+            meter.record(segments.size(), t0);
+            for (DocumentSegment segment : segments) {
+                PendingDocument document = pending.get(segment.getDocumentId());
+                if (document != null && document.remaining().decrementAndGet() == 0) {
+                    pending.remove(segment.getDocumentId());
+                    complete(segment.getDocumentId(), document);
+                }
+            }
+        } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+        }
+    }
+
+    private Optional<DocumentParser> parserFor(Path file) {
+        String extension = extension(file);
+        return parsers.stream().filter(p -> p.supports(null, extension)).findFirst();
+    }
+
+    private static String extension(Path file) {
+        String filename = file.getFileName().toString();
+        int i = filename.lastIndexOf('.');
+        return (i > 0) ? filename.substring(i + 1) : "";
+    }
+
+    private static void awaitAll(List<? extends Future<?>> futures) throws InterruptedException {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Ingestion stage failed", e.getCause());
+            }
+        }
+    }
+
+    private static final class StageMeter {
+        private final String name;
+        private final int workers;
+        private final LongAdder items = new LongAdder();
+        private final LongAdder busyNanos = new LongAdder();
+
+        StageMeter(String name, int workers) {
+            this.name = name;
+            this.workers = Math.max(1, workers);
+        }
+
+        void record(long count, long startNanos) {
+            items.add(count);
+            busyNanos.add(System.nanoTime() - startNanos);
+        }
+
+        IngestionReport.StageStats stats() {
+            return new IngestionReport.StageStats(name, items.sum(), busyNanos.sum(), workers);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.github.springAi.parse;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Outcome of one {@link IngestionPipeline} run.
+ *
+ * @param unchangedFiles files skipped because their content was already ingested.
+ * @param reusedChunks   chunks of changed files that were already stored and not re-embedded.
+ * @param stages         per-stage counters, in pipeline order.
+ */
+public record IngestionReport(int files, int unchangedFiles, int failedFiles, long chunks, long reusedChunks,
+                              long stored, Duration elapsed, List<StageStats> stages) {
+
+    /**
+     * @param items     units the stage completed (files, chunks or rows).
+     * @param busyNanos time the stage's workers spent working, summed over workers.
+     * @param workers   how many workers the stage ran.
+     */
+    public record StageStats(String name, long items, long busyNanos, int workers) {
+
+        public double itemsPerSecond(Duration elapsed) {
+            return elapsed.isZero() ? 0 : items * 1e9 / elapsed.toNanos();
+        }
+
+        /**
+         * Share of the available worker time the stage was busy; the stage near 1.0 is the bottleneck.
+         */
+        public double utilisation(Duration elapsed) {
+            return elapsed.isZero() ? 0 : (double) busyNanos / ((double) elapsed.toNanos() * workers);
+        }
+    }
+
+    public String summary() {
+        StringBuilder sb = new StringBuilder(String.format(
+                "Ingested %d files (%d unchanged, %d failed), %d chunks (%d reused), %d rows stored in %d ms",
+                files - unchangedFiles - failedFiles, unchangedFiles, failedFiles, chunks, reusedChunks, stored,
+                elapsed.toMillis()));
+        for (StageStats stage : stages) {
+            sb.append(String.format("%n  %-6s %8d items  %10.1f/s  busy %5.1f%% of %d workers",
+                    stage.name(), stage.items(), stage.itemsPerSecond(elapsed),
+                    stage.utilisation(elapsed) * 100, stage.workers()));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,113 @@
+package com.github.springAi.parse;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * {@link IngestionLedger} over the 'documents' table and the chunk_sha256 metadata of vector_segments.
+ * <p>
+ * documents.sha256 holds the hash of the file bytes whose chunks are all stored. Until a new document
+ * is complete it holds a "pending:" marker instead, which no real hash matches, so an interrupted
+ * run is picked up again rather than skipped. A hash is unique per source_path only: identical files
+ * under two paths are two documents.
+ */
+@Slf4j
+@Repository
+@Profile("!test")
+@ConditionalOnProperty(name = "vector-store.type", havingValue = "postgres", matchIfMissing = true)
+@RequiredArgsConstructor
+public class JdbcIngestionLedger implements IngestionLedger {
+
+    private static final String PENDING_PREFIX = "pending:";
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final ObjectMapper mapper;
+
+    @Override
+    public boolean isIngested(String sourcePath, String sha256) {
+        return Boolean.TRUE.equals(jdbc.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM documents WHERE source_path = :sourcePath AND sha256 = :sha256)",
+                new MapSqlParameterSource().addValue("sourcePath", sourcePath).addValue("sha256", sha256),
+                Boolean.class));
+    }
+
+    @Override
+    @Transactional
+    public DocumentState open(String sourcePath, Map<String, Object> metadata) {
+        List<UUID> existing = jdbc.queryForList(
+                "SELECT id FROM documents WHERE source_path = :sourcePath ORDER BY created_at LIMIT 1",
+                new MapSqlParameterSource("sourcePath", sourcePath), UUID.class);
+        if (existing.isEmpty()) {
+            UUID id = UUID.randomUUID();
+            jdbc.update("""
+                INSERT INTO documents (id, source_path, sha256, metadata)
+                VALUES (:id, :sourcePath, :sha256, cast(:metadata as jsonb))
+                """, new MapSqlParameterSource()
+                    .addValue("id", id)
+                    .addValue("sourcePath", sourcePath)
+                    .addValue("sha256", PENDING_PREFIX + id)
+                    .addValue("metadata", toJson(metadata)));
+            return new DocumentState(id, Map.of());
+        }
+
+        UUID id = existing.get(0);
+        Map<UUID, String> storedChunks = new HashMap<>();
+        jdbc.query("SELECT id, metadata->>'chunk_sha256' AS chunk_sha256 FROM vector_segments WHERE document_id = :id",
+                new MapSqlParameterSource("id", id),
+                (RowCallbackHandler) rs -> storedChunks.put(UUID.fromString(rs.getString("id")), rs.getString("chunk_sha256")));
+        return new DocumentState(id, storedChunks);
+    }
+
+    @Override
+    public void markIngested(UUID documentId, String sha256) {
+        MapSqlParameterSource params = new MapSqlParameterSource().addValue("id", documentId).addValue("sha256", sha256);
+        try {
+            jdbc.update("UPDATE documents SET sha256 = :sha256 WHERE id = :id", params);
+        } catch (DuplicateKeyException e) {
+            reconcile(documentId, sha256, params, e);
+        }
+    }
+
+    /**
+     * Another row already records this content for the path: two runs created a row each for the same file
+     * and the other completed first. That row covers the file, so this one and its segments are dropped.
+     * A conflict across paths means the database still has the former UNIQUE(sha256) constraint.
+     */
+    private void reconcile(UUID documentId, String sha256, MapSqlParameterSource params, DuplicateKeyException e) {
+        List<UUID> sameFile = jdbc.queryForList("""
+                SELECT other.id FROM documents other
+                JOIN documents doc ON doc.id = :id AND other.source_path = doc.source_path
+                WHERE other.sha256 = :sha256 AND other.id <> :id
+                """, params, UUID.class);
+        if (sameFile.isEmpty()) {
+            throw new IllegalStateException("Content " + sha256 + " is already recorded under another path; "
+                    + "apply sql/new.sql to drop the documents_sha256_key constraint", e);
+        }
+        log.warn("Content {} is already recorded for the same file as document {}; removing duplicate document {}",
+                sha256, sameFile.get(0), documentId);
+        jdbc.update("DELETE FROM documents WHERE id = :id", params);
+    }
+
+    private String toJson(Map<String, Object> metadata) {
+        try {
+            return mapper.writeValueAsString(metadata == null ? Map.of() : metadata);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize document metadata", e);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.github.springAi.parse;
+
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.IntArrayList;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.function.Consumer;
+
+/**
+ * Incremental counterpart of Spring AI's {@code TokenTextSplitter}: text is appended as a parser produces
+ * it, and each time {@code chunkSize} tokens are buffered a chunk is cut (at the last sentence end past
+ * {@code minChunkSizeChars}, as the splitter does) and handed to the sink. Only the unfinished tail is
+ * kept, so memory depends on the chunk size, not on the document.
+ * <p>
+ * {@code overlapTokens} > 0 starts each chunk with the last tokens of the previous one. There is no
+ * limit on the number of chunks, unlike the splitter's {@code maxNumChunks}. Not thread-safe: one
+ * instance per document.
+ * <p>
+ * Counting tokens means encoding the buffered window, so a cut is only attempted once the buffer has
+ * probably grown enough for a chunk, judging by about {@code ESTIMATED_CHARS_PER_TOKEN} characters per
+ * token; small appends in between cost nothing.
+ */
+@Slf4j
+final class StreamingChunker {
+
+    // Tokens are rarely longer than this many characters, so a window this size holds a full chunk
+    private static final int WINDOW_CHARS_PER_TOKEN = 16;
+    // Typical for English prose with cl100k_base
+    private static final int ESTIMATED_CHARS_PER_TOKEN = 4;
+
+    private final Encoding encoding;
+    private final int chunkSize;
+    private final int minChunkSizeChars;
+    private final int minChunkLengthToEmbed;
+    private final int overlapTokens;
+    private final boolean keepSeparator;
+    private final Consumer<String> sink;
+    private final StringBuilder buffer = new StringBuilder();
+    // Buffer length at which the next cut is attempted
+    private int nextCutLength;
+    private int chunks;
+
+    StreamingChunker(Encoding encoding, int chunkSize, int minChunkSizeChars, int minChunkLengthToEmbed,
+                     int overlapTokens, boolean keepSeparator, Consumer<String> sink) {
+        if (chunkSize <= 0 || overlapTokens < 0 || overlapTokens >= chunkSize) {
+            throw new IllegalArgumentException("Chunk overlap must be smaller than the chunk size");
+        }
+        this.encoding = encoding;
+        this.chunkSize = chunkSize;
+        this.minChunkSizeChars = minChunkSizeChars;
+        this.minChunkLengthToEmbed = minChunkLengthToEmbed;
+        this.overlapTokens = overlapTokens;
+        this.keepSeparator = keepSeparator;
+        this.sink = sink;
+        this.nextCutLength = chunkSize * ESTIMATED_CHARS_PER_TOKEN;
+    }
+
+    void append(CharSequence text) {
+        buffer.append(text);
+        while (buffer.length() >= nextCutLength && cut(false)) {
+            // keep cutting while full chunks are buffered
+        }
+    }
+
+    /**
+     * Flushes the buffered tail as the last chunk(s).
+     */
+    void finish() {
+        while (!buffer.isEmpty() && cut(true)) {
+            // drain
+        }
+        buffer.setLength(0);
+    }
+
+    int chunks() {
+        return chunks;
+    }
+
+    /**
+     * @return false when more text is needed before a chunk can be cut.
+     */
+    private boolean cut(boolean last) {
+        int window = Math.min(buffer.length(), chunkSize * WINDOW_CHARS_PER_TOKEN);
+        IntArrayList tokens = encoding.encodeOrdinary(buffer.substring(0, window));
+        // The window's last token may be cut short by its edge, so a full chunk needs one spare
+        if (!last && tokens.size() <= chunkSize && window == buffer.length()) {
+            // Wait for roughly the missing tokens' worth of text before encoding again
+            nextCutLength = buffer.length() + (chunkSize + 1 - tokens.size()) * ESTIMATED_CHARS_PER_TOKEN;
+            return false;
+        }
+        nextCutLength = chunkSize * ESTIMATED_CHARS_PER_TOKEN;
+        IntArrayList head = slice(tokens, 0, Math.min(chunkSize, tokens.size()));
+        String chunkText = stripPartialCharacter(encoding.decode(head));
+        if (chunkText.isEmpty()) {
+            // The head decodes to replacement characters only: skip those characters, not the window
+            int undecodable = 0;
+            while (undecodable < buffer.length() && buffer.charAt(undecodable) == '�') {
+                undecodable++;
+            }
+            undecodable = Math.max(1, undecodable);
+            log.warn("Skipping {} undecodable characters in streamed text", undecodable);
+            buffer.delete(0, undecodable);
+            return true;
+        }
+        if (!chunkText.isBlank()) {
+            int lastPunctuation = Math.max(chunkText.lastIndexOf('.'), Math.max(chunkText.lastIndexOf('?'),
+                    Math.max(chunkText.lastIndexOf('!'), chunkText.lastIndexOf('\n'))));
+            if (lastPunctuation != -1 && lastPunctuation > minChunkSizeChars) {
+                chunkText = chunkText.substring(0, lastPunctuation + 1);
+            }
+            String toEmbed = keepSeparator ? chunkText.trim() : chunkText.replace(System.lineSeparator(), " ").trim();
+            if (toEmbed.length() > minChunkLengthToEmbed) {
+                sink.accept(toEmbed);
+                chunks++;
+            }
+        }
+        // The decoded text is a prefix of the buffer (partial characters were stripped above)
+        int consumed = chunkText.length();
+        buffer.delete(0, consumed);
+        if (overlapTokens > 0 && !buffer.isEmpty()) {
+            IntArrayList chunkTokens = encoding.encodeOrdinary(chunkText);
+            String overlap = stripPartialCharacter(encoding.decode(
+                    slice(chunkTokens, Math.max(0, chunkTokens.size() - overlapTokens), chunkTokens.size())));
+            // Never re-feed as much as was consumed, or the chunker would stop advancing
+            if (overlap.length() < consumed) {
+                buffer.insert(0, overlap);
+            }
+        }
+        return true;
+    }
+
+    private static IntArrayList slice(IntArrayList tokens, int from, int to) {
+        IntArrayList slice = new IntArrayList(to - from);
+        for (int i = from; i < to; i++) {
+            slice.add(tokens.get(i));
+        }
+        return slice;
+    }
+
+    /**
+     * A slice of tokens can end inside a multi-byte character, which decodes to U+FFFD; that part
+     * stays in the buffer for the next chunk.
+     */
+    private static String stripPartialCharacter(String text) {
+        int end = text.length();
+        while (end > 0 && text.charAt(end - 1) == '�') {
+            end--;
+        }
+        return text.substring(0, end);
+    }
+}
@@ -3,12 +3,24 @@ package com.github.springAi.parse;
 
 import com.github.springAi.domain.IngestionCandidate;
 import lombok.RequiredArgsConstructor;
+import org.apache.tika.exception.TikaException;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.parser.AutoDetectParser;
+import org.apache.tika.parser.ParseContext;
+import org.apache.tika.parser.microsoft.OfficeParserConfig;
 import org.springframework.ai.document.Document;
 import org.springframework.ai.reader.tika.TikaDocumentReader;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @Component
 @RequiredArgsConstructor
@@ -27,7 +39,7 @@ public class TikaParserAdapter implements DocumentParser {
         
         // Join pages if Tika splits them, or take the first one
         StringBuilder content = new StringBuilder();
-        documents.forEach(doc -> content.append(doc.getContent()).append("\n"));
+        documents.forEach(doc -> content.append(doc.getText()).append("\n"));
 
         return IngestionCandidate.builder()
                 .sourcePath(resource.getFilename()) // Simplified
@@ -36,4 +48,97 @@ public class TikaParserAdapter implements DocumentParser {
                 .metadata(documents.isEmpty() ? null : documents.get(0).getMetadata())
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Only DOCX: its SAX extractor reads the package as a stream. Tika's PDF parser loads the whole
+     * PDDocument first, so a large PDF would gain nothing over {@link #parse}.
+     */
+    @Override
+    public boolean streams(String extension) {
+        return "docx".equalsIgnoreCase(extension);
+    }
+
+    /**
+     * Parses with Tika's SAX interface, so text is forwarded as the parser produces it instead of being
+     * collected into one string first; DOCX uses the SAX extractor rather than loading the document. Tika's parsers read the document
+     * properties before its body, so they are copied into {@code metadata} ahead of the first text.
+     */
+    @Override
+    public void stream(Resource resource, Map<String, Object> metadata, Consumer<String> text) {
+        Metadata tikaMetadata = new Metadata();
+        TextForwardingHandler handler = new TextForwardingHandler(text, () -> {
+            for (String name : tikaMetadata.names()) {
+                metadata.put(name, tikaMetadata.get(name));
+            }
+        });
+        OfficeParserConfig office = new OfficeParserConfig();
+        office.setUseSAXDocxExtractor(true);
+        ParseContext context = new ParseContext();
+        context.set(OfficeParserConfig.class, office);
+        try (InputStream in = resource.getInputStream()) {
+            new AutoDetectParser().parse(in, handler, tikaMetadata, context);
+        } catch (IOException | SAXException | TikaException e) {
+            throw new RuntimeException("Failed to parse " + resource.getFilename(), e);
+        }
+    }
+
+    /**
+     * Collects SAX character events into pieces of about {@code FLUSH_CHARS} and ends blocks with a newline.
+     * {@code beforeFirstText} runs once, ahead of the first piece (or at the end of a document without text).
+     */
+    private static final class TextForwardingHandler extends DefaultHandler {
+
+        private static final int FLUSH_CHARS = 8192;
+        private static final Set<String> BLOCKS = Set.of("p", "div", "li", "tr", "br", "h1", "h2", "h3", "h4", "h5", "h6");
+
+        private final Consumer<String> text;
+        private final StringBuilder pending = new StringBuilder(FLUSH_CHARS);
+        private Runnable beforeFirstText;
+
+        TextForwardingHandler(Consumer<String> text, Runnable beforeFirstText) {
+            this.text = text;
+            this.beforeFirstText = beforeFirstText;
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            pending.append(ch, start, length);
+            if (pending.length() >= FLUSH_CHARS) {
+                flush();
+            }
+        }
+
+        @Override
+        public void ignorableWhitespace(char[] ch, int start, int length) {
+            characters(ch, start, length);
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            if (BLOCKS.contains(localName)) {
+                pending.append('\n');
+            }
+        }
+
+        @Override
+        public void endDocument() {
+            flush();
+            started();
+        }
+
+        private void started() {
+            if (beforeFirstText != null) {
+                beforeFirstText.run();
+                beforeFirstText = null;
+            }
+        }
+
+        private void flush() {
+            if (!pending.isEmpty()) {
+                started();
+                text.accept(pending.toString());
+                pending.setLength(0);
+            }
+        }
+    }
+}
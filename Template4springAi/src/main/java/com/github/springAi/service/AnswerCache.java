@@ -0,0 +1,144 @@
+package com.github.springAi.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.springAi.Retriever.RetrievalResult;
+import com.github.springAi.config.RagServiceProperties;
+import com.github.springAi.domain.DocumentSegment;
+import com.github.springAi.domain.RagResponse;
+import com.github.springAi.vector.SimilarityKernel;
+import com.github.springAi.vector.SimilarityKernels;
+import com.github.springAi.vector.VectorStoreChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Semantic cache of generated answers.
+ * <p>
+ * Answers are grouped by the request filters and the ordered IDs of the segments retrieved for
+ * the question; within a group, a cached answer is reused when its question embedding is at least
+ * {@code similarity-threshold} cosine-similar to the new one. Because the retrieved IDs are part of
+ * the key, new content that changes the retrieval simply misses, and any store change touching a
+ * cited segment drops the answers that cited it.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "rag-service.answer-cache.enabled", havingValue = "true")
+public class AnswerCache {
+
+    // Paraphrases kept per (filters, segments) group; the oldest is dropped first.
+    private static final int MAX_ENTRIES_PER_KEY = 8;
+
+    private final Cache<Key, List<Entry>> cache;
+    private final float similarityThreshold;
+    private final SimilarityKernel kernel = SimilarityKernels.create("auto");
+    // Bumped on every store change, so an answer generated from pre-change segments is not stored after it.
+    private final AtomicLong epoch = new AtomicLong();
+
+    private record Key(Map<String, String> filters, List<UUID> segmentIds) {}
+
+    private record Entry(float[] questionEmbedding, RagResponse response) {}
+
+    public AnswerCache(RagServiceProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        RagServiceProperties.AnswerCacheProperties config = properties.getAnswerCache();
+        this.similarityThreshold = (float) config.getSimilarityThreshold();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(config.getMaximumSize())
+                .weigher((Key key, List<Entry> entries) -> entries.size())
+                .expireAfterWrite(config.getExpireAfterWrite())
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache, "answers"));
+        log.info("Answer cache enabled (threshold {}, maximum size {})", similarityThreshold, config.getMaximumSize());
+    }
+
+    /**
+     * Read before retrieval and hand back to {@link #put}.
+     */
+    public long epoch() {
+        return epoch.get();
+    }
+
+    public Optional<RagResponse> find(RetrievalResult retrieval, Map<String, Object> filters) {
+        Key key = keyOf(retrieval, filters);
+        List<Entry> entries = key == null ? null : cache.getIfPresent(key);
+        if (entries == null) {
+            return Optional.empty();
+        }
+        float[] question = SimilarityKernels.normalize(retrieval.queryEmbedding());
+        Entry best = null;
+        float bestScore = similarityThreshold;
+        for (Entry entry : entries) {
+            float score = kernel.dot(question, entry.questionEmbedding());
+            if (score >= bestScore) {
+                best = entry;
+                bestScore = score;
+            }
+        }
+        if (best == null) {
+            return Optional.empty();
+        }
+        log.debug("Answer cache hit (similarity {})", bestScore);
+        return Optional.of(best.response());
+    }
+
+    /**
+     * @param observedEpoch {@link #epoch()} as read before the segments were retrieved.
+     */
+    public void put(RetrievalResult retrieval, Map<String, Object> filters, RagResponse response, long observedEpoch) {
+        Key key = keyOf(retrieval, filters);
+        if (key == null || observedEpoch != epoch.get()) {
+            return;
+        }
+        Entry entry = new Entry(SimilarityKernels.normalize(retrieval.queryEmbedding()), response);
+        cache.asMap().merge(key, List.of(entry), (existing, added) -> {
+            List<Entry> merged = new ArrayList<>(existing.subList(Math.max(0, existing.size() - MAX_ENTRIES_PER_KEY + 1), existing.size()));
+            merged.addAll(added);
+            return List.copyOf(merged);
+        });
+    }
+
+    @EventListener
+    public void onVectorStoreChanged(VectorStoreChangedEvent event) {
+        if (event.isEmpty()) {
+            return;
+        }
+        epoch.incrementAndGet();
+        Set<UUID> touched = new HashSet<>(event.removedIds());
+        for (DocumentSegment segment : event.upserted()) {
+            touched.add(segment.getId());
+        }
+        cache.asMap().keySet().removeIf(key -> key.segmentIds().stream().anyMatch(touched::contains));
+    }
+
+    /**
+     * @return null when the answer should not be cached: no vector, or nothing was retrieved.
+     */
+    private static Key keyOf(RetrievalResult retrieval, Map<String, Object> filters) {
+        if (retrieval.queryEmbedding().length == 0 || retrieval.segments().isEmpty()) {
+            return null;
+        }
+        // Values compared as strings, the same way the stores apply them
+        Map<String, String> normalizedFilters = new TreeMap<>();
+        if (filters != null) {
+            filters.forEach((k, v) -> normalizedFilters.put(k, String.valueOf(v)));
+        }
+        List<UUID> ids = retrieval.segments().stream().map(DocumentSegment::getId).toList();
+        return new Key(normalizedFilters, ids);
+    }
+}
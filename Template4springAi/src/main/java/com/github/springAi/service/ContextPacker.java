@@ -0,0 +1,48 @@
+package com.github.springAi.service;
+
+import com.github.springAi.config.RagServiceProperties;
+import com.github.springAi.domain.DocumentSegment;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Packs retrieved segments into the prompt context within rag-service.context-token-budget tokens.
+ */
+@Component
+@RequiredArgsConstructor
+public class ContextPacker {
+
+    private static final String SEPARATOR = "\n---\n";
+
+    private final RagServiceProperties properties;
+    private final TokenCounter tokenCounter;
+
+    /**
+     * Segments arrive best first; each one that still fits is taken, so a long segment that doesn't fit
+     * no longer shuts out shorter ones behind it.
+     */
+    public String pack(List<DocumentSegment> segments) {
+        int budget = properties.getContextTokenBudget();
+        int separatorTokens = tokenCounter.count(SEPARATOR);
+        StringBuilder contextBuilder = new StringBuilder();
+        int used = 0;
+        int source = 0;
+
+        for (DocumentSegment segment : segments) {
+            String header = String.format("[Source %d, file: %s]:\n", source + 1, segment.getMetadata().get("file_name"));
+            int cost = tokenCounter.count(header) + tokenCounter.count(segment.getContent(), segment.getMetadata())
+                    + separatorTokens;
+            if (used + cost > budget) {
+                continue; // a later, shorter segment may still fit
+            }
+            contextBuilder.append(header);
+            contextBuilder.append(segment.getContent());
+            contextBuilder.append(SEPARATOR);
+            used += cost;
+            source++;
+        }
+        return contextBuilder.toString();
+    }
+}
@@ -0,0 +1,15 @@
+package com.github.springAi.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * A downstream stayed saturated for longer than its limiter's acquire timeout.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class DownstreamBusyException extends RuntimeException {
+
+    public DownstreamBusyException(String downstream) {
+        super("Too many concurrent requests to " + downstream + ", try again later");
+    }
+}
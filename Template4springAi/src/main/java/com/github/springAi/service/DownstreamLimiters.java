@@ -0,0 +1,45 @@
+package com.github.springAi.service;
+
+import com.github.springAi.config.RagServiceProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * One {@link ConcurrencyLimiter} per downstream of the query path, sized under rag-service.limits.
+ */
+@Component
+public class DownstreamLimiters {
+
+    private final ConcurrencyLimiter embedding;
+    private final ConcurrencyLimiter database;
+    private final ConcurrencyLimiter llm;
+
+    public DownstreamLimiters(RagServiceProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        RagServiceProperties.LimitsProperties limits = properties.getLimits();
+        this.embedding = new ConcurrencyLimiter("embedding", limits.getEmbedding(), limits.getAcquireTimeout());
+        this.database = new ConcurrencyLimiter("database", limits.getDatabase(), limits.getAcquireTimeout());
+        this.llm = new ConcurrencyLimiter("llm", limits.getLlm(), limits.getAcquireTimeout());
+        meterRegistry.ifAvailable(registry -> {
+            for (ConcurrencyLimiter limiter : new ConcurrencyLimiter[]{embedding, database, llm}) {
+                Gauge.builder("rag.downstream.in_flight", limiter, ConcurrencyLimiter::inFlight)
+                        .description("Calls currently holding a slot of the downstream limiter")
+                        .tag("downstream", limiter.name())
+                        .register(registry);
+            }
+        });
+    }
+
+    public ConcurrencyLimiter embedding() {
+        return embedding;
+    }
+
+    public ConcurrencyLimiter database() {
+        return database;
+    }
+
+    public ConcurrencyLimiter llm() {
+        return llm;
+    }
+}
@@ -1,84 +1,131 @@
 package com.github.springAi.service;
 
+import com.github.springAi.Retriever.RetrievalResult;
 import com.github.springAi.Retriever.VectorStoreRetriever;
-import com.github.springAi.config.RagServiceProperties;
 import com.github.springAi.domain.DocumentSegment;
 import com.github.springAi.domain.RagRequest;
 import com.github.springAi.domain.RagResponse;
+import com.github.springAi.domain.RagStream;
 import com.github.springAi.domain.SourceDocument;
 import lombok.RequiredArgsConstructor;
 import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.chat.prompt.PromptTemplate;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class RAGService {
 
-    // A token budget for the context to avoid exceeding the LLM's limit.
-    // This is a rough character count; a proper tokenizer would be more accurate.
-    private static final int CONTEXT_TOKEN_BUDGET = 4000;
     private final ChatModel chatModel; // <-- DEPENDENCY CHANGE
-    private final RagServiceProperties properties; // Inject properties for token budget
     private final VectorStoreRetriever retriever;
+    private final ObjectProvider<AnswerCache> answerCache; // present when rag-service.answer-cache.enabled
+    private final DownstreamLimiters limiters;
+    private final ContextPacker contextPacker; // packs the context into the token budget
+    private final StageObservations observations;
     @Value("classpath:/prompts/rag-prompt.st")
     private Resource ragPromptResource;
 
 
 
     public RagResponse ask(RagRequest request) {
+        AnswerCache cache = answerCache.getIfAvailable();
+        long cacheEpoch = cache == null ? 0 : cache.epoch();
+
         // 1. Retrieve relevant documents
-        List<DocumentSegment> relevantSegments = retriever.retrieve(
+        RetrievalResult retrieval = retriever.retrieveWithEmbedding(
                 request.getQuestion(), request.getTopK(), request.getFilters());
 
-        // 2. Build the context string, managing the token budget
-        String context = buildContext(relevantSegments);
+        // A near-identical question that retrieved the same segments can reuse the answer
+        if (cache != null) {
+            Optional<RagResponse> cached = cache.find(retrieval, request.getFilters());
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+        }
 
-        // 3. Create the prompt using the template
-        PromptTemplate promptTemplate = new PromptTemplate(ragPromptResource);
-        Prompt prompt = promptTemplate.create(Map.of(
-                "context", context,
-                "question", request.getQuestion()
-        ));
+        // 2-3. Build the context and the prompt
+        Prompt prompt = createPrompt(request, retrieval.segments());
 
         // 4. Call the LLM using the ChatModel
         // The call is identical to ChatClient when using a Prompt object.
-        String llmAnswer = chatModel.call(prompt).getResult().getOutput().getContent();
+        String llmAnswer = observations.observe(StageObservations.QUERY, StageObservations.LLM,
+                () -> limiters.llm().call(() -> chatModel.call(prompt).getResult().getOutput().getContent()));
         // 5. Create the response object with sources
-        List<SourceDocument> sources = relevantSegments.stream()
-                .map(seg -> new SourceDocument(seg.getDocumentId(), seg.getId(), seg.getContent(), seg.getMetadata()))
-                .collect(Collectors.toList());
-
-        return new RagResponse(llmAnswer, sources);
+        RagResponse response = new RagResponse(llmAnswer, toSources(retrieval.segments()));
+        if (cache != null) {
+            cache.put(retrieval, request.getFilters(), response, cacheEpoch);
+        }
+        return response;
     }
-    
-    private String buildContext(List<DocumentSegment> segments) {
-        StringBuilder contextBuilder = new StringBuilder();
-        int currentLength = 0;
-
-        for (int i = 0; i < segments.size(); i++) {
-            DocumentSegment segment = segments.get(i);
-            String content = segment.getContent();
-            
-            // Check if adding this segment exceeds the budget
-            if (currentLength + content.length() > CONTEXT_TOKEN_BUDGET) {
-                break; // Stop adding more segments
+
+    /**
+     * Like {@link #ask}, but the answer arrives as a stream of tokens from the chat model's streaming API.
+     * Retrieval (blocking) has completed when this returns, so the sources can be sent immediately.
+     */
+    public RagStream askStream(RagRequest request) {
+        AnswerCache cache = answerCache.getIfAvailable();
+        long cacheEpoch = cache == null ? 0 : cache.epoch();
+
+        RetrievalResult retrieval = retriever.retrieveWithEmbedding(
+                request.getQuestion(), request.getTopK(), request.getFilters());
+        List<SourceDocument> sources = toSources(retrieval.segments());
+
+        if (cache != null) {
+            Optional<RagResponse> cached = cache.find(retrieval, request.getFilters());
+            if (cached.isPresent()) {
+                return new RagStream(cached.get().getSources(), Flux.just(cached.get().getAnswer()));
             }
-            
-            contextBuilder.append(String.format("[Source %d, file: %s]:\n", i + 1, segment.getMetadata().get("file_name")));
-            contextBuilder.append(content);
-            contextBuilder.append("\n---\n");
-            currentLength += content.length();
         }
-        return contextBuilder.toString();
+
+        Prompt prompt = createPrompt(request, retrieval.segments());
+        StringBuilder answer = new StringBuilder();
+        // The LLM slot is taken on subscription and held until the stream ends
+        ConcurrencyLimiter llm = limiters.llm();
+        Flux<String> generated = Flux.using(() -> {
+                    llm.acquire();
+                    return llm;
+                }, slot -> chatModel.stream(prompt), ConcurrencyLimiter::release)
+                .mapNotNull(chunk -> chunk.getResult() == null ? null : chunk.getResult().getOutput().getContent())
+                .filter(token -> !token.isEmpty());
+        // Observed after filtering, so time to first token counts the first non-empty fragment
+        Flux<String> tokens = observations.observeStream(StageObservations.LLM, generated)
+                .doOnNext(answer::append);
+        if (cache != null) {
+            tokens = tokens.doOnComplete(() -> cache.put(retrieval, request.getFilters(),
+                    new RagResponse(answer.toString(), sources), cacheEpoch));
+        }
+        return new RagStream(sources, tokens);
+    }
+
+    private Prompt createPrompt(RagRequest request, List<DocumentSegment> relevantSegments) {
+        // Build the context string, managing the token budget
+        String context = observations.observe(StageObservations.QUERY, "context", () -> contextPacker.pack(relevantSegments));
+
+        // Create the prompt using the template
+        return observations.observe(StageObservations.QUERY, "prompt", () -> {
+            PromptTemplate promptTemplate = new PromptTemplate(ragPromptResource);
+            return promptTemplate.create(Map.of(
+                    "context", context,
+                    "question", request.getQuestion()
+            ));
+        });
+    }
+
+    private static List<SourceDocument> toSources(List<DocumentSegment> segments) {
+        return segments.stream()
+                .map(seg -> new SourceDocument(seg.getDocumentId(), seg.getId(), seg.getContent(), seg.getMetadata()))
+                .collect(Collectors.toList());
     }
 
 
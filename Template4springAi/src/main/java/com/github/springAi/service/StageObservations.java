@@ -0,0 +1,110 @@
+package com.github.springAi.service;
+
+import com.github.springAi.config.RagServiceProperties;
+import com.github.springAi.embe.EmbeddingServiceProperties;
+import com.github.springAi.vector.VectorStoreProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Times the stages of the query ({@value #QUERY}) and ingestion ({@value #INGEST}) pipelines as
+ * Micrometer observations tagged by stage, provider, store and outcome. Boot turns each observation into
+ * a timer (histogram buckets under management.metrics.distribution), and into a span when a tracing
+ * bridge is on the classpath. Without an ObservationRegistry the stages just run.
+ * <p>
+ * The provider tag names the downstream serving the stage: the chat model for {@value #LLM}, the
+ * embedding provider otherwise.
+ */
+@Component
+public class StageObservations {
+
+    public static final String QUERY = "rag.query";
+    public static final String INGEST = "rag.ingest";
+    public static final String LLM = "llm";
+
+    private final ObservationRegistry registry;
+    private final String embeddingProvider;
+    private final String chatModel;
+    private final String store;
+    private final Timer timeToFirstToken; // null without a MeterRegistry
+
+    public StageObservations(RagServiceProperties ragProperties, EmbeddingServiceProperties embeddingProperties,
+                             VectorStoreProperties storeProperties, ObjectProvider<ObservationRegistry> observationRegistry,
+                             ObjectProvider<MeterRegistry> meterRegistry) {
+        this.registry = observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP);
+        this.embeddingProvider = embeddingProperties.getProvider();
+        this.chatModel = ragProperties.getChatModel();
+        this.store = storeProperties.getType();
+        MeterRegistry meters = meterRegistry.getIfAvailable();
+        this.timeToFirstToken = meters == null ? null : Timer.builder(QUERY + ".ttft")
+                .description("Time from sending the prompt to the first streamed answer token")
+                .tag("provider", chatModel)
+                .publishPercentileHistogram()
+                .register(meters);
+    }
+
+    public <T> T observe(String name, String stage, Supplier<T> work) {
+        Observation observation = create(name, stage).start();
+        try (Observation.Scope scope = observation.openScope()) {
+            T result = work.get();
+            observation.lowCardinalityKeyValue("outcome", "success");
+            return result;
+        } catch (RuntimeException e) {
+            observation.lowCardinalityKeyValue("outcome", "error");
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    public void observe(String name, String stage, Runnable work) {
+        observe(name, stage, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Observes a streamed answer from subscription to its end, and records time to first token.
+     */
+    public <T> Flux<T> observeStream(String stage, Flux<T> tokens) {
+        return Flux.defer(() -> {
+            Observation observation = create(QUERY, stage).start();
+            long start = System.nanoTime();
+            AtomicBoolean first = new AtomicBoolean();
+            return tokens
+                    .doOnNext(token -> {
+                        if (timeToFirstToken != null && first.compareAndSet(false, true)) {
+                            timeToFirstToken.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        }
+                    })
+                    .doOnError(observation::error)
+                    .doFinally(signal -> {
+                        observation.lowCardinalityKeyValue("outcome", switch (signal) {
+                            case ON_COMPLETE -> "success";
+                            case CANCEL -> "cancelled";
+                            default -> "error";
+                        });
+                        observation.stop();
+                    });
+        });
+    }
+
+    private Observation create(String name, String stage) {
+        return Observation.createNotStarted(name, registry)
+                .contextualName(name + " " + stage)
+                .lowCardinalityKeyValue("stage", stage)
+                .lowCardinalityKeyValue("provider", LLM.equals(stage) ? chatModel : embeddingProvider)
+                .lowCardinalityKeyValue("store", store);
+    }
+}
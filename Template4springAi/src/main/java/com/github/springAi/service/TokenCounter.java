@@ -0,0 +1,49 @@
+package com.github.springAi.service;
+
+import com.github.springAi.config.RagServiceProperties;
+import com.knuddels.jtokkit.Encodings;
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.EncodingType;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Counts BPE tokens the way the chat model does (cl100k_base or o200k_base, from the vocab files
+ * bundled with jtokkit; nothing is downloaded). Counting does not materialise the token ids.
+ */
+@Component
+public class TokenCounter {
+
+    /**
+     * Segment metadata key holding the token count computed at ingest.
+     */
+    public static final String TOKEN_COUNT = "token_count";
+
+    private final Encoding encoding;
+
+    public TokenCounter(RagServiceProperties properties) {
+        EncodingType type = EncodingType.fromName(properties.getTokenizer())
+                .orElseThrow(() -> new IllegalStateException("Unknown rag-service.tokenizer: " + properties.getTokenizer()));
+        this.encoding = Encodings.newLazyEncodingRegistry().getEncoding(type);
+    }
+
+    public int count(String text) {
+        // Ordinary: document text may contain "<|endoftext|>" and similar, which are just text here
+        return text == null || text.isEmpty() ? 0 : encoding.countTokensOrdinary(text);
+    }
+
+    /**
+     * The count recorded under {@link #TOKEN_COUNT} at ingest, or a fresh count for older segments.
+     */
+    public int count(String text, Map<String, Object> metadata) {
+        Object cached = metadata == null ? null : metadata.get(TOKEN_COUNT);
+        if (cached instanceof Number n) {
+            return n.intValue();
+        }
+        if (cached instanceof String s && !s.isEmpty() && s.chars().allMatch(Character::isDigit)) {
+            return Integer.parseInt(s);
+        }
+        return count(text);
+    }
+}
@@ -0,0 +1,59 @@
+package com.github.springAi.vector;
+
+import java.util.Arrays;
+
+/**
+ * 1-bit sign quantisation: one bit per dimension packed into longs (32x smaller than float[]).
+ * Similarity is the negated Hamming distance between sign codes.
+ */
+class BinaryCodes extends QuantizedCodes {
+
+    private volatile long[][] codes = new long[1024][];
+
+    @Override
+    synchronized void encode(int slot, float[] normalized) {
+        if (slot >= codes.length) {
+            codes = Arrays.copyOf(codes, Math.max(slot + 1, codes.length * 2));
+        }
+        codes[slot] = signBits(normalized);
+    }
+
+    @Override
+    synchronized void release(int slot) {
+        if (slot < codes.length) {
+            codes[slot] = null;
+        }
+    }
+
+    @Override
+    Scorer scorer(float[] normalizedQuery) {
+        long[] query = signBits(normalizedQuery);
+        return slot -> {
+            long[][] current = codes;
+            long[] code = slot < current.length ? current[slot] : null;
+            if (code == null || code.length != query.length) {
+                return Float.NEGATIVE_INFINITY;
+            }
+            int distance = 0;
+            for (int i = 0; i < code.length; i++) {
+                distance += Long.bitCount(query[i] ^ code[i]);
+            }
+            return -distance;
+        };
+    }
+
+    @Override
+    int bytesPerVector(int dimensions) {
+        return ((dimensions + 63) / 64) * Long.BYTES;
+    }
+
+    private static long[] signBits(float[] vector) {
+        long[] bits = new long[(vector.length + 63) / 64];
+        for (int i = 0; i < vector.length; i++) {
+            if (vector[i] > 0f) {
+                bits[i >>> 6] |= 1L << (i & 63);
+            }
+        }
+        return bits;
+    }
+}
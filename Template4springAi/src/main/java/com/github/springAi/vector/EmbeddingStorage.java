@@ -0,0 +1,33 @@
+package com.github.springAi.vector;
+
+import java.io.Closeable;
+
+/**
+ * Slot-addressed storage for embedding vectors of a fixed dimension.
+ * Slots are dense ints handed out by the owning store.
+ */
+interface EmbeddingStorage extends Closeable {
+
+    void write(int slot, float[] embedding);
+
+    /**
+     * Reads a vector. Implementations either return their own array (which callers must not modify)
+     * or copy into {@code scratch} and return it, so a scan can reuse one buffer per thread.
+     */
+    float[] read(int slot, float[] scratch);
+
+    /**
+     * Signals that a slot no longer holds a live vector and may be reused.
+     */
+    void release(int slot);
+
+    /**
+     * Makes written vectors durable. A no-op for storage that does not survive restarts.
+     */
+    default void flush() {
+    }
+
+    @Override
+    default void close() {
+    }
+}
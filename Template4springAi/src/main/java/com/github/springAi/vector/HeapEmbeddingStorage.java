@@ -0,0 +1,38 @@
+package com.github.springAi.vector;
+
+import java.util.Arrays;
+
+/**
+ * One {@code float[]} per slot on the Java heap.
+ */
+class HeapEmbeddingStorage implements EmbeddingStorage {
+
+    // Written under the monitor; re-assigned after every write so unsynchronised readers see the new
+    // elements, and a grown array only once it holds the copied ones.
+    private volatile float[][] vectors = new float[1024][];
+
+    @Override
+    public synchronized void write(int slot, float[] embedding) {
+        float[][] current = vectors;
+        if (slot >= current.length) {
+            current = Arrays.copyOf(current, Math.max(slot + 1, current.length * 2));
+        }
+        current[slot] = embedding;
+        vectors = current;
+    }
+
+    @Override
+    public float[] read(int slot, float[] scratch) {
+        float[][] current = vectors;
+        return slot < current.length ? current[slot] : null;
+    }
+
+    @Override
+    public synchronized void release(int slot) {
+        float[][] current = vectors;
+        if (slot < current.length) {
+            current[slot] = null;
+            vectors = current;
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package com.github.springAi.vector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * A concurrent Hierarchical Navigable Small World graph (Malkov &amp; Yashunin) over cosine similarity.
+ * Vectors are L2-normalised on insert so each comparison is a single {@link SimilarityKernel} dot product.
+ * <p>
+ * Inserts may run from many threads at once: neighbour lists are guarded by their owning node's
+ * monitor, and only an insert that raises the top layer serialises on the entry point lock.
+ * Removal is a tombstone: the node stays in the graph for connectivity but is never returned. The
+ * graph never shrinks, so owners rebuild it once {@link #tombstones()} outgrows {@link #size()}.
+ *
+ * @param <T> the payload stored with each vector
+ */
+public class HnswIndex<T> {
+
+    private static final Comparator<Candidate> BEST_FIRST = (a, b) -> Float.compare(b.score, a.score);
+    private static final Comparator<Candidate> WORST_FIRST = (a, b) -> Float.compare(a.score, b.score);
+
+    private final SimilarityKernel kernel;
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+
+    private final AtomicInteger nextId = new AtomicInteger();
+    private final AtomicInteger liveCount = new AtomicInteger();
+    private final ReentrantLock entryLock = new ReentrantLock();
+    private volatile Node<T> entryPoint;
+
+    // Shared rather than per thread: with virtual threads every request is a new thread, and a
+    // thread-local set would be allocated (nextId ints) on every search. Sets beyond the pool's
+    // capacity, needed only at peak concurrency, are dropped after use.
+    private final BlockingQueue<VisitedSet> visitedPool =
+            new ArrayBlockingQueue<>(Math.max(4, Runtime.getRuntime().availableProcessors() * 2));
+
+    public HnswIndex(int m, int efConstruction, SimilarityKernel kernel) {
+        if (m < 2) {
+            throw new IllegalArgumentException("HNSW M must be at least 2");
+        }
+        this.kernel = kernel;
+        this.m = m;
+        this.maxM0 = m * 2;
+        this.efConstruction = Math.max(efConstruction, m);
+        this.levelMultiplier = 1 / Math.log(m);
+    }
+
+    /**
+     * @param vector the node's unit-length vector, owned by the index; do not modify.
+     */
+    public record Match<T>(T item, float score, float[] vector) {}
+
+    public static final class Node<T> {
+        private final int id;
+        private final T item;
+        private final float[] vector;
+        private final int level;
+        private final Node<T>[][] links;
+        private final int[] linkCounts;
+        private volatile boolean deleted;
+
+        @SuppressWarnings("unchecked")
+        private Node(int id, T item, float[] vector, int level, int m, int maxM0) {
+            this.id = id;
+            this.item = item;
+            this.vector = vector;
+            this.level = level;
+            this.links = new Node[level + 1][];
+            this.linkCounts = new int[level + 1];
+            for (int l = 0; l <= level; l++) {
+                links[l] = new Node[l == 0 ? maxM0 : m];
+            }
+        }
+
+        public T item() {
+            return item;
+        }
+
+        /**
+         * The node's unit-length vector, owned by the index; do not modify.
+         */
+        public float[] vector() {
+            return vector;
+        }
+
+        private synchronized Node<T>[] neighbours(int level) {
+            return Arrays.copyOf(links[level], linkCounts[level]);
+        }
+
+        private synchronized void setNeighbours(int level, List<Node<T>> neighbours) {
+            for (int i = 0; i < neighbours.size(); i++) {
+                links[level][i] = neighbours.get(i);
+            }
+            linkCounts[level] = neighbours.size();
+        }
+    }
+
+    private record Candidate(Node<?> node, float score) {}
+
+    public int size() {
+        return liveCount.get();
+    }
+
+    /**
+     * Removed nodes still held in the graph.
+     */
+    public int tombstones() {
+        return nextId.get() - liveCount.get();
+    }
+
+    /**
+     * Inserts a vector and links it into every layer up to its randomly drawn level.
+     *
+     * @return the graph node, to be handed back to {@link #remove(Node)}.
+     */
+    public Node<T> add(T item, float[] vector) {
+        Node<T> node = new Node<>(nextId.getAndIncrement(), item, SimilarityKernels.normalize(vector), randomLevel(), m, maxM0);
+        liveCount.incrementAndGet();
+
+        Node<T> entry = entryPoint;
+        boolean promotes = entry == null || node.level > entry.level;
+        if (promotes) {
+            entryLock.lock();
+            entry = entryPoint;
+            if (entry == null) {
+                entryPoint = node;
+                entryLock.unlock();
+                return node;
+            }
+            if (node.level <= entry.level) {
+                entryLock.unlock();
+                promotes = false;
+            }
+        }
+
+        try {
+            Node<T> current = entry;
+            for (int level = entry.level; level > node.level; level--) {
+                current = greedyClosest(current, node.vector, level);
+            }
+            for (int level = Math.min(node.level, entry.level); level >= 0; level--) {
+                List<Candidate> candidates = searchLayer(current, node.vector, efConstruction, level, null);
+                List<Node<T>> neighbours = selectNeighbours(candidates, maxLinks(level));
+                node.setNeighbours(level, neighbours);
+                for (Node<T> neighbour : neighbours) {
+                    connect(neighbour, node, level);
+                }
+                current = cast(candidates.get(0).node);
+            }
+            if (promotes) {
+                entryPoint = node;
+            }
+        } finally {
+            if (promotes) {
+                entryLock.unlock();
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Tombstones a node. It keeps routing searches but is no longer returned.
+     */
+    public void remove(Node<T> node) {
+        if (!node.deleted) {
+            node.deleted = true;
+            liveCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * Approximate k-nearest-neighbour search.
+     *
+     * @param ef     the candidate list size; clamped to at least {@code k}.
+     * @param filter optional predicate on the payload; non-matching nodes are traversed but not returned.
+     * @return up to {@code k} matches, best first.
+     */
+    public List<Match<T>> search(float[] query, int k, int ef, Predicate<T> filter) {
+        Node<T> entry = entryPoint;
+        if (entry == null || k <= 0) {
+            return List.of();
+        }
+        float[] normalized = SimilarityKernels.normalize(query);
+        Node<T> current = entry;
+        for (int level = entry.level; level > 0; level--) {
+            current = greedyClosest(current, normalized, level);
+        }
+        Predicate<Node<T>> accept = n -> !n.deleted && (filter == null || filter.test(n.item));
+        List<Candidate> candidates = searchLayer(current, normalized, Math.max(ef, k), 0, accept);
+
+        List<Match<T>> matches = new ArrayList<>(Math.min(k, candidates.size()));
+        for (int i = 0; i < candidates.size() && matches.size() < k; i++) {
+            Candidate c = candidates.get(i);
+            Node<T> node = cast(c.node);
+            matches.add(new Match<>(node.item, c.score, node.vector));
+        }
+        return matches;
+    }
+
+    private Node<T> greedyClosest(Node<T> start, float[] query, int level) {
+        Node<T> best = start;
+        float bestScore = similarity(query, start);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (Node<T> neighbour : best.neighbours(level)) {
+                float score = similarity(query, neighbour);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = neighbour;
+                    improved = true;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Beam search on one layer. Every reachable node may be expanded, but only nodes passing
+     * {@code accept} (all nodes when null) are collected.
+     *
+     * @return the collected candidates, best first.
+     */
+    private List<Candidate> searchLayer(Node<T> entry, float[] query, int ef, int level, Predicate<Node<T>> accept) {
+        VisitedSet seen = visitedPool.poll();
+        if (seen == null) {
+            seen = new VisitedSet();
+        }
+        try {
+            seen.reset(nextId.get());
+            return searchLayer(entry, query, ef, level, accept, seen);
+        } finally {
+            visitedPool.offer(seen);
+        }
+    }
+
+    private List<Candidate> searchLayer(Node<T> entry, float[] query, int ef, int level, Predicate<Node<T>> accept,
+                                        VisitedSet seen) {
+        PriorityQueue<Candidate> frontier = new PriorityQueue<>(BEST_FIRST);
+        PriorityQueue<Candidate> results = new PriorityQueue<>(WORST_FIRST);
+
+        Candidate start = new Candidate(entry, similarity(query, entry));
+        seen.add(entry.id);
+        frontier.add(start);
+        if (accept == null || accept.test(entry)) {
+            results.add(start);
+        }
+
+        while (!frontier.isEmpty()) {
+            Candidate closest = frontier.poll();
+            if (results.size() >= ef && closest.score < results.peek().score) {
+                break;
+            }
+            for (Node<T> neighbour : this.<T>cast(closest.node).neighbours(level)) {
+                if (!seen.add(neighbour.id)) {
+                    continue;
+                }
+                float score = similarity(query, neighbour);
+                if (results.size() < ef || score > results.peek().score) {
+                    Candidate candidate = new Candidate(neighbour, score);
+                    frontier.add(candidate);
+                    if (accept == null || accept.test(neighbour)) {
+                        results.add(candidate);
+                        if (results.size() > ef) {
+                            results.poll();
+                        }
+                    }
+                }
+            }
+        }
+
+        List<Candidate> ordered = new ArrayList<>(results);
+        ordered.sort(BEST_FIRST);
+        return ordered;
+    }
+
+    /**
+     * The diversity heuristic from the paper: keep a candidate only if it is closer to the base
+     * than to any neighbour already kept, then top up with the pruned ones.
+     */
+    private List<Node<T>> selectNeighbours(List<Candidate> candidates, int max) {
+        List<Node<T>> selected = new ArrayList<>(max);
+        List<Node<T>> pruned = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            if (selected.size() >= max) {
+                break;
+            }
+            Node<T> node = cast(candidate.node);
+            boolean diverse = true;
+            for (Node<T> kept : selected) {
+                if (similarity(node.vector, kept) > candidate.score) {
+                    diverse = false;
+                    break;
+                }
+            }
+            (diverse ? selected : pruned).add(node);
+        }
+        for (int i = 0; i < pruned.size() && selected.size() < max; i++) {
+            selected.add(pruned.get(i));
+        }
+        return selected;
+    }
+
+    private void connect(Node<T> target, Node<T> newcomer, int level) {
+        synchronized (target) {
+            int max = maxLinks(level);
+            int count = target.linkCounts[level];
+            if (count < max) {
+                target.links[level][count] = newcomer;
+                target.linkCounts[level] = count + 1;
+                return;
+            }
+            List<Candidate> pool = new ArrayList<>(count + 1);
+            for (int i = 0; i < count; i++) {
+                Node<T> existing = target.links[level][i];
+                pool.add(new Candidate(existing, similarity(target.vector, existing)));
+            }
+            pool.add(new Candidate(newcomer, similarity(target.vector, newcomer)));
+            pool.sort(BEST_FIRST);
+            target.setNeighbours(level, selectNeighbours(pool, max));
+        }
+    }
+
+    private int maxLinks(int level) {
+        return level == 0 ? maxM0 : m;
+    }
+
+    private int randomLevel() {
+        double r = 1.0 - ThreadLocalRandom.current().nextDouble(); // (0, 1]
+        return (int) (-Math.log(r) * levelMultiplier);
+    }
+
+    private float similarity(float[] normalizedQuery, Node<?> node) {
+        return kernel.dot(normalizedQuery, node.vector);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <N> Node<N> cast(Node<?> node) {
+        return (Node<N>) node;
+    }
+
+    /**
+     * Generation-stamped visited marks, pooled so a search does not allocate a bitmap.
+     */
+    private static final class VisitedSet {
+        private int[] marks = new int[1024];
+        private int generation;
+
+        void reset(int capacity) {
+            if (marks.length < capacity) {
+                marks = new int[Math.max(capacity, marks.length * 2)];
+                generation = 0;
+            }
+            if (++generation == 0) {
+                Arrays.fill(marks, 0);
+                generation = 1;
+            }
+        }
+
+        boolean add(int id) {
+            if (id >= marks.length) {
+                marks = Arrays.copyOf(marks, Math.max(id + 1, marks.length * 2));
+            }
+            if (marks[id] == generation) {
+                return false;
+            }
+            marks[id] = generation;
+            return true;
+        }
+    }
+}
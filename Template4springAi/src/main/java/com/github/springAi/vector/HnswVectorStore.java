@@ -0,0 +1,181 @@
+package com.github.springAi.vector;
+
+import com.github.springAi.domain.DocumentSegment;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * In-process approximate nearest neighbour store backed by an {@link HnswIndex}.
+ * Serves top-K queries without a round trip to Postgres; contents live only as long as the JVM.
+ * <p>
+ * Replaced and deleted segments stay in the graph as tombstones. Once they outnumber the live ones the
+ * graph is rebuilt from the live nodes and swapped in; searches keep using the old graph meanwhile,
+ * writes wait for the swap.
+ */
+@Slf4j
+@Repository
+@Profile("!test")
+@ConditionalOnProperty(name = "vector-store.type", havingValue = "hnsw")
+public class HnswVectorStore implements VectorStoreRepository {
+
+    // Batches smaller than this are inserted on the caller thread.
+    private static final int PARALLEL_INSERT_THRESHOLD = 256;
+    // Small graphs are not worth rebuilding
+    private static final int MIN_TOMBSTONES_TO_REBUILD = 1024;
+
+    private volatile HnswIndex<DocumentSegment> index;
+    private final int m;
+    private final int efConstruction;
+    private final SimilarityKernel kernel;
+    private final int efSearch;
+    private final ApplicationEventPublisher events;
+    // Writers share the read side; a rebuild takes the write side
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    // Key: Segment ID, Value: live graph node (replaced nodes are tombstoned in the index)
+    private final Map<UUID, HnswIndex.Node<DocumentSegment>> nodes = new ConcurrentHashMap<>();
+
+    public HnswVectorStore(VectorStoreProperties properties, ApplicationEventPublisher events) {
+        this.events = events;
+        VectorStoreProperties.HnswProperties hnsw = properties.getHnsw();
+        this.kernel = SimilarityKernels.create(properties.getKernel());
+        this.m = hnsw.getM();
+        this.efConstruction = hnsw.getEfConstruction();
+        this.index = new HnswIndex<>(m, efConstruction, kernel);
+        this.efSearch = hnsw.getEfSearch();
+        log.info("Initialized HNSW vector store (M={}, efConstruction={}, efSearch={}, kernel={})",
+                hnsw.getM(), hnsw.getEfConstruction(), hnsw.getEfSearch(), kernel.name());
+    }
+
+    @Override
+    public void upsertBatch(List<DocumentSegment> segments, List<float[]> embeddings) {
+        if (segments.size() != embeddings.size()) {
+            throw new IllegalArgumentException("Segments and embeddings size mismatch");
+        }
+        IntStream range = IntStream.range(0, segments.size());
+        if (segments.size() >= PARALLEL_INSERT_THRESHOLD) {
+            range = range.parallel();
+        }
+        rebuildLock.readLock().lock();
+        try {
+            HnswIndex<DocumentSegment> graph = index;
+            range.forEach(i -> {
+                DocumentSegment segment = segments.get(i);
+                HnswIndex.Node<DocumentSegment> previous = nodes.put(segment.getId(), graph.add(segment, embeddings.get(i)));
+                if (previous != null) {
+                    graph.remove(previous);
+                }
+            });
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+        log.debug("Upserted batch of {} vectors into HNSW index (live size {})", segments.size(), index.size());
+        rebuildIfNeeded();
+        events.publishEvent(VectorStoreChangedEvent.upserted(segments));
+    }
+
+    @Override
+    public List<VectorMatch> searchMatches(float[] queryEmbedding, int topK, Map<String, Object> filters) {
+        return index.search(queryEmbedding, topK, Math.max(efSearch, topK),
+                        segment -> MetadataFilters.matches(segment.getMetadata(), filters))
+                .stream()
+                .map(match -> new VectorMatch(match.item(), match.score(), match.vector()))
+                .toList();
+    }
+
+    @Override
+    public void forEachSegment(Consumer<DocumentSegment> action) {
+        nodes.values().forEach(node -> action.accept(node.item()));
+    }
+
+    @Override
+    public void deleteByTalkId(UUID talkId) {
+        List<UUID> removed = new ArrayList<>();
+        rebuildLock.readLock().lock();
+        try {
+            Iterator<HnswIndex.Node<DocumentSegment>> it = nodes.values().iterator();
+            while (it.hasNext()) {
+                HnswIndex.Node<DocumentSegment> node = it.next();
+                if (MetadataFilters.belongsToTalk(node.item().getMetadata(), talkId)) {
+                    it.remove();
+                    index.remove(node);
+                    removed.add(node.item().getId());
+                }
+            }
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+        rebuildIfNeeded();
+        if (!removed.isEmpty()) {
+            events.publishEvent(VectorStoreChangedEvent.removed(removed));
+        }
+    }
+
+    @Override
+    public void deleteByIds(Collection<UUID> ids) {
+        List<UUID> removed = new ArrayList<>();
+        rebuildLock.readLock().lock();
+        try {
+            for (UUID id : ids) {
+                HnswIndex.Node<DocumentSegment> node = nodes.remove(id);
+                if (node != null) {
+                    index.remove(node);
+                    removed.add(id);
+                }
+            }
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+        rebuildIfNeeded();
+        if (!removed.isEmpty()) {
+            events.publishEvent(VectorStoreChangedEvent.removed(removed));
+        }
+    }
+
+    /**
+     * Re-inserts the live nodes into a fresh graph once tombstones outnumber them, so re-ingesting the
+     * same documents does not grow the graph (and every search's visited set) without bound.
+     */
+    private void rebuildIfNeeded() {
+        if (!needsRebuild(index)) {
+            return;
+        }
+        rebuildLock.writeLock().lock();
+        try {
+            HnswIndex<DocumentSegment> current = index;
+            if (!needsRebuild(current)) {
+                return; // another writer rebuilt it first
+            }
+            long start = System.nanoTime();
+            int tombstones = current.tombstones();
+            HnswIndex<DocumentSegment> fresh = new HnswIndex<>(m, efConstruction, kernel);
+            nodes.entrySet().parallelStream().forEach(entry ->
+                    entry.setValue(fresh.add(entry.getValue().item(), entry.getValue().vector())));
+            index = fresh;
+            log.info("Rebuilt HNSW index over {} live vectors, dropped {} tombstones in {} ms", fresh.size(),
+                    tombstones, (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    private static boolean needsRebuild(HnswIndex<?> graph) {
+        int tombstones = graph.tombstones();
+        return tombstones >= MIN_TOMBSTONES_TO_REBUILD && tombstones > graph.size();
+    }
+}
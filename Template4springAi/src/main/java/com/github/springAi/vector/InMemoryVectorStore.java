@@ -1,62 +1,336 @@
 package com.github.springAi.vector;
 
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.springAi.domain.DocumentSegment;
+import com.github.springAi.embe.EmbeddingServiceProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.IntConsumer;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 
-import java.util.AbstractMap;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
+@Slf4j
 @Repository
 @Profile("test") // Active only during tests
 public class InMemoryVectorStore implements VectorStoreRepository {
 
-    // Key: Segment ID, Value: Record
-    private final Map<UUID, InMemoryRecord> store = new ConcurrentHashMap<>();
+    private static final int PARALLELISM = ForkJoinPool.getCommonPoolParallelism();
+    // Below this many slots per partition, forking costs more than it saves.
+    private static final int MIN_PARTITION_SIZE = 4096;
 
-    record InMemoryRecord(DocumentSegment segment, float[] embedding) {}
+    private final SimilarityKernel kernel;
+    private final EmbeddingStorage embeddings;
+    private final SegmentIndexFile indexFile; // null unless embeddings are persisted
+    private final QuantizedCodes codes; // null unless quantised first-pass search is enabled
+    private final MetadataBitmapIndex metadataIndex;
+    private final int rerankMultiplier;
+    private final ApplicationEventPublisher events;
+
+    // Key: Segment ID, Value: slot in embeddings / segments
+    private final Map<UUID, Integer> slots = new ConcurrentHashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    // Written under the monitor; re-assigned after every write so readers see the new elements.
+    private volatile DocumentSegment[] segments = new DocumentSegment[1024];
+    private volatile int slotCount;
+
+    public InMemoryVectorStore(VectorStoreProperties properties, EmbeddingServiceProperties embeddingProperties,
+                               ObjectMapper mapper, ApplicationEventPublisher events) {
+        this.events = events;
+        this.kernel = SimilarityKernels.create(properties.getKernel());
+        this.codes = QuantizedCodes.create(properties.getQuantization());
+        this.rerankMultiplier = Math.max(1, properties.getRerankMultiplier());
+        VectorStoreProperties.MemoryProperties memory = properties.getMemory();
+        this.metadataIndex = new MetadataBitmapIndex(memory.getUnindexedMetadataKeys());
+        if ("mapped".equalsIgnoreCase(memory.getStorage())) {
+            Path directory = Path.of(memory.getDirectory());
+            try {
+                Files.createDirectories(directory);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot create vector directory " + directory, e);
+            }
+            this.embeddings = new MappedEmbeddingStorage(directory.resolve("embeddings.bin"),
+                    embeddingProperties.getDimensions(), memory.getVectorsPerRegion());
+            this.indexFile = new SegmentIndexFile(directory.resolve("segments.jsonl"), mapper);
+            restore(indexFile.load());
+            log.info("In-memory vector store using mapped file in {} ({} segments restored)", directory, slots.size());
+        } else {
+            this.embeddings = new HeapEmbeddingStorage();
+            this.indexFile = null;
+        }
+        log.info("In-memory vector store scoring with the {} kernel, quantization: {}",
+                kernel.name(), properties.getQuantization());
+    }
+
+    private void restore(Map<Integer, SegmentIndexFile.Entry> live) {
+        int maxSlot = live.keySet().stream().mapToInt(Integer::intValue).max().orElse(-1);
+        DocumentSegment[] restored = new DocumentSegment[Math.max(1024, maxSlot + 1)];
+        live.forEach((slot, entry) -> {
+            restored[slot] = entry.toSegment();
+            slots.put(entry.id(), slot);
+            metadataIndex.add(slot, restored[slot].getMetadata());
+            if (codes != null) {
+                codes.encode(slot, embeddings.read(slot, null));
+            }
+        });
+        for (int slot = 0; slot <= maxSlot; slot++) {
+            if (restored[slot] == null) {
+                freeSlots.push(slot);
+            }
+        }
+        slotCount = maxSlot + 1;
+        segments = restored;
+    }
 
     @Override
-    public void upsertBatch(List<DocumentSegment> segments, List<float[]> embeddings) {
+    public synchronized void upsertBatch(List<DocumentSegment> segments, List<float[]> embeddings) {
+        if (segments.size() != embeddings.size()) {
+            throw new IllegalArgumentException("Segments and embeddings size mismatch");
+        }
+        DocumentSegment[] current = this.segments;
+        List<SegmentIndexFile.Entry> entries = indexFile == null ? null : new ArrayList<>(segments.size());
         for (int i = 0; i < segments.size(); i++) {
-            store.put(segments.get(i).id(), new InMemoryRecord(segments.get(i), embeddings.get(i)));
+            DocumentSegment segment = segments.get(i);
+            Integer slot = slots.get(segment.getId());
+            if (slot == null) {
+                slot = freeSlots.isEmpty() ? slotCount++ : freeSlots.pop();
+            } else {
+                metadataIndex.remove(slot, current[slot].getMetadata());
+            }
+            if (slot >= current.length) {
+                current = Arrays.copyOf(current, Math.max(slot + 1, current.length * 2));
+            }
+            // Stored unit-length so scoring is a single dot product
+            float[] normalized = SimilarityKernels.normalize(embeddings.get(i));
+            this.embeddings.write(slot, normalized);
+            if (codes != null) {
+                codes.encode(slot, normalized);
+            }
+            current[slot] = segment;
+            slots.put(segment.getId(), slot);
+            metadataIndex.add(slot, segment.getMetadata());
+            if (entries != null) {
+                entries.add(SegmentIndexFile.Entry.of(slot, segment));
+            }
+        }
+        this.segments = current;
+        if (indexFile != null) {
+            // The side index is what a restart trusts, so its entries go out only once the vectors they
+            // point at are on disk; a crash in between loses the batch rather than restoring zeroed vectors.
+            this.embeddings.flush();
+            entries.forEach(indexFile::append);
+            indexFile.flush();
         }
+        events.publishEvent(VectorStoreChangedEvent.upserted(segments));
     }
 
     @Override
-    public List<DocumentSegment> search(UUID talkId, String userId, float[] query, int topK) {
-        return store.values().stream()
-                // 1. Filter by metadata
-                .filter(r -> r.segment.talkId().equals(talkId) && r.segment.userId().equals(userId))
-                // 2. Calculate Similarity (Cosine)
-                .map(r -> new AbstractMap.SimpleEntry<>(r.segment, cosineSimilarity(query, r.embedding)))
-                // 3. Sort descending (highest score first)
-                .sorted((a, b) -> Double.compare(b.getValue(), a.getValue()))
-                // 4. Limit
-                .limit(topK)
-                .map(AbstractMap.SimpleEntry::getKey)
-                .collect(Collectors.toList());
+    public List<VectorMatch> searchMatches(float[] queryEmbedding, int topK, Map<String, Object> filters) {
+        DocumentSegment[] current = this.segments;
+        int count = Math.min(slotCount, current.length);
+        if (topK <= 0 || count == 0) {
+            return List.of();
+        }
+
+        // Resolve the filters to candidate slots first, so a selective filter scores only its matches
+        RoaringBitmap selected = metadataIndex.select(filters);
+        if (selected != null && selected.isEmpty()) {
+            return List.of();
+        }
+
+        float[] query = SimilarityKernels.normalize(queryEmbedding);
+        if (codes == null) {
+            return toMatches(current, scan(current, count, filters, selected, topK, () -> exactScorer(query)));
+        }
+
+        // First pass over the compact codes, then re-rank the candidate pool at full precision.
+        QuantizedCodes.Scorer approximate = codes.scorer(query);
+        int[] candidates = scan(current, count, filters, selected, topK * rerankMultiplier, () -> approximate).drainIds();
+        QuantizedCodes.Scorer exact = exactScorer(query);
+        TopKHeap best = new TopKHeap(topK);
+        for (int slot : candidates) {
+            offer(best, exact.score(slot), slot);
+        }
+        return toMatches(current, best);
+    }
+
+    /**
+     * Scores partitions in parallel, each into its own bounded heap, then merges the heaps.
+     *
+     * @param selected slots pre-selected by the metadata index, or null to consider every slot.
+     * @param scorers supplies one scorer per partition, so each may hold its own scratch buffer.
+     */
+    private TopKHeap scan(DocumentSegment[] current, int count, Map<String, Object> filters, RoaringBitmap selected,
+                          int heapSize, Supplier<QuantizedCodes.Scorer> scorers) {
+        int candidates = selected == null ? count : selected.getCardinality();
+        int partitions = Math.max(1, Math.min(PARALLELISM, candidates / MIN_PARTITION_SIZE));
+        int partitionSize = (count + partitions - 1) / partitions;
+        IntStream partitionIndexes = IntStream.range(0, partitions);
+        if (partitions > 1) {
+            partitionIndexes = partitionIndexes.parallel();
+        }
+        return partitionIndexes
+                .mapToObj(p -> scorePartition(current, filters, selected, heapSize, scorers.get(),
+                        p * partitionSize, Math.min(count, (p + 1) * partitionSize)))
+                .reduce((a, b) -> {
+                    a.addAll(b);
+                    return a;
+                })
+                .orElseThrow();
+    }
+
+    private TopKHeap scorePartition(DocumentSegment[] current, Map<String, Object> filters, RoaringBitmap selected,
+                                    int heapSize, QuantizedCodes.Scorer scorer, int from, int to) {
+        TopKHeap heap = new TopKHeap(heapSize);
+        if (selected == null) {
+            for (int slot = from; slot < to; slot++) {
+                score(heap, current, filters, scorer, slot);
+            }
+            return heap;
+        }
+        PeekableIntIterator slots = selected.getIntIterator();
+        slots.advanceIfNeeded(from);
+        while (slots.hasNext() && slots.peekNext() < to) {
+            score(heap, current, filters, scorer, slots.next());
+        }
+        return heap;
+    }
+
+    private static void score(TopKHeap heap, DocumentSegment[] current, Map<String, Object> filters,
+                              QuantizedCodes.Scorer scorer, int slot) {
+        DocumentSegment segment = current[slot];
+        if (segment != null && MetadataFilters.matches(segment.getMetadata(), filters)) {
+            offer(heap, scorer.score(slot), slot);
+        }
+    }
+
+    private QuantizedCodes.Scorer exactScorer(float[] query) {
+        float[] scratch = new float[query.length];
+        return slot -> {
+            float[] embedding = embeddings.read(slot, scratch);
+            return embedding == null ? Float.NEGATIVE_INFINITY : kernel.dot(query, embedding);
+        };
+    }
+
+    private static void offer(TopKHeap heap, float score, int slot) {
+        if (score != Float.NEGATIVE_INFINITY) {
+            heap.offer(score, slot);
+        }
+    }
+
+    private List<VectorMatch> toMatches(DocumentSegment[] current, TopKHeap best) {
+        int[] bestSlots = new int[best.size()];
+        float[] scores = new float[bestSlots.length];
+        best.drain(bestSlots, scores);
+        List<VectorMatch> results = new ArrayList<>(bestSlots.length);
+        for (int i = 0; i < bestSlots.length; i++) {
+            DocumentSegment segment = current[bestSlots[i]];
+            float[] embedding = embeddings.read(bestSlots[i], null);
+            if (segment != null && embedding != null) { // may have been deleted since it was scored
+                results.add(new VectorMatch(segment, scores[i], embedding));
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public void forEachSegment(Consumer<DocumentSegment> action) {
+        DocumentSegment[] current = this.segments;
+        int count = Math.min(slotCount, current.length);
+        for (int slot = 0; slot < count; slot++) {
+            if (current[slot] != null) {
+                action.accept(current[slot]);
+            }
+        }
     }
 
     @Override
-    public void deleteByTalkId(UUID talkId) {
-        store.values().removeIf(r -> r.segment.talkId().equals(talkId));
+    public synchronized void deleteByTalkId(UUID talkId) {
+        List<UUID> removed = new ArrayList<>();
+        DocumentSegment[] current = this.segments;
+        IntConsumer releaseIfInTalk = slot -> {
+            DocumentSegment segment = current[slot];
+            if (segment != null && MetadataFilters.belongsToTalk(segment.getMetadata(), talkId)) {
+                release(current, slot);
+                removed.add(segment.getId());
+            }
+        };
+        // The selection is a copy, so releasing slots while walking it is safe
+        RoaringBitmap talk = metadataIndex.select(Map.of(MetadataFilters.TALK_ID, talkId.toString()));
+        if (talk != null) {
+            talk.forEach(releaseIfInTalk);
+        } else {
+            for (int slot = 0; slot < slotCount; slot++) {
+                releaseIfInTalk.accept(slot);
+            }
+        }
+        afterRemoval(current, removed);
+    }
+
+    @Override
+    public synchronized void deleteByIds(Collection<UUID> ids) {
+        List<UUID> removed = new ArrayList<>();
+        DocumentSegment[] current = this.segments;
+        for (UUID id : ids) {
+            Integer slot = slots.get(id);
+            if (slot != null) {
+                release(current, slot);
+                removed.add(id);
+            }
+        }
+        afterRemoval(current, removed);
+    }
+
+    private void release(DocumentSegment[] current, int slot) {
+        slots.remove(current[slot].getId());
+        metadataIndex.remove(slot, current[slot].getMetadata());
+        current[slot] = null;
+        embeddings.release(slot);
+        if (codes != null) {
+            codes.release(slot);
+        }
+        freeSlots.push(slot);
+        if (indexFile != null) {
+            indexFile.append(SegmentIndexFile.Entry.deleted(slot));
+        }
+    }
+
+    private void afterRemoval(DocumentSegment[] current, List<UUID> removed) {
+        this.segments = current;
+        if (indexFile != null) {
+            indexFile.flush();
+        }
+        if (!removed.isEmpty()) {
+            events.publishEvent(VectorStoreChangedEvent.removed(removed));
+        }
     }
 
-    // Your original math logic, moved here where it's appropriate for in-memory
-    private double cosineSimilarity(float[] a, float[] b) {
-        if (a == null || b == null || a.length != b.length) return 0.0;
-        double dot = 0.0, na = 0.0, nb = 0.0;
-        for (int i = 0; i < a.length; i++) {
-            dot += a[i] * b[i];
-            na += a[i] * a[i];
-            nb += b[i] * b[i];
+    @PreDestroy
+    public synchronized void close() {
+        embeddings.close();
+        if (indexFile != null) {
+            indexFile.close();
         }
-        return (na == 0 || nb == 0) ? 0.0 : dot / (Math.sqrt(na) * Math.sqrt(nb));
     }
-}
\ No newline at end of file
+}
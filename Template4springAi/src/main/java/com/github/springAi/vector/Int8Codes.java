@@ -0,0 +1,76 @@
+package com.github.springAi.vector;
+
+import java.util.Arrays;
+
+/**
+ * Symmetric int8 scalar quantisation: each vector is scaled by its largest absolute component
+ * to [-127, 127], so one byte per dimension plus one float scale (about 4x smaller than float[]).
+ */
+class Int8Codes extends QuantizedCodes {
+
+    // Grown under the monitor; scales is always published before codes so readers never see it shorter.
+    private volatile byte[][] codes = new byte[1024][];
+    private volatile float[] scales = new float[1024];
+
+    @Override
+    synchronized void encode(int slot, float[] normalized) {
+        if (slot >= codes.length) {
+            int capacity = Math.max(slot + 1, codes.length * 2);
+            scales = Arrays.copyOf(scales, capacity);
+            codes = Arrays.copyOf(codes, capacity);
+        }
+        float max = 0f;
+        for (float x : normalized) {
+            max = Math.max(max, Math.abs(x));
+        }
+        byte[] code = new byte[normalized.length];
+        quantize(normalized, max, code);
+        scales[slot] = max / 127f;
+        codes[slot] = code;
+    }
+
+    @Override
+    synchronized void release(int slot) {
+        if (slot < codes.length) {
+            codes[slot] = null;
+        }
+    }
+
+    @Override
+    Scorer scorer(float[] normalizedQuery) {
+        float max = 0f;
+        for (float x : normalizedQuery) {
+            max = Math.max(max, Math.abs(x));
+        }
+        byte[] query = new byte[normalizedQuery.length];
+        quantize(normalizedQuery, max, query);
+        float queryScale = max / 127f;
+        return slot -> {
+            byte[][] currentCodes = codes;
+            byte[] code = slot < currentCodes.length ? currentCodes[slot] : null;
+            if (code == null || code.length != query.length) {
+                return Float.NEGATIVE_INFINITY;
+            }
+            int dot = 0;
+            for (int i = 0; i < code.length; i++) {
+                dot += query[i] * code[i];
+            }
+            return dot * queryScale * scales[slot];
+        };
+    }
+
+    @Override
+    int bytesPerVector(int dimensions) {
+        return dimensions + Float.BYTES;
+    }
+
+    private static void quantize(float[] vector, float max, byte[] out) {
+        if (max == 0f) {
+            return;
+        }
+        float factor = 127f / max;
+        for (int i = 0; i < vector.length; i++) {
+            out[i] = (byte) Math.round(vector[i] * factor);
+        }
+    }
+}
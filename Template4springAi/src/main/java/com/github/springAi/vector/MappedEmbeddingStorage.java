@@ -0,0 +1,143 @@
+package com.github.springAi.vector;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Packs vectors contiguously in a memory-mapped file so they live in the page cache instead of on the heap.
+ * <p>
+ * The file is a 16-byte header (magic, version, dimensions) followed by {@code dimensions} little-endian
+ * floats per slot. It is mapped in fixed-size regions because a single mapping is capped at 2 GB;
+ * regions are mapped lazily and the file grows as slots are written.
+ */
+@Slf4j
+class MappedEmbeddingStorage implements EmbeddingStorage {
+
+    private static final int MAGIC = 0x52564543; // "RVEC"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+
+    private final FileChannel channel;
+    private final int dimensions;
+    private final int vectorsPerRegion;
+    private final long regionBytes;
+    private volatile FloatBuffer[] regions = new FloatBuffer[0];
+    private volatile MappedByteBuffer[] mappings = new MappedByteBuffer[0];
+
+    MappedEmbeddingStorage(Path file, int dimensions, int vectorsPerRegion) {
+        this.dimensions = dimensions;
+        this.vectorsPerRegion = vectorsPerRegion;
+        this.regionBytes = (long) vectorsPerRegion * dimensions * Float.BYTES;
+        if (regionBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Mapped region of " + vectorsPerRegion + " x " + dimensions
+                    + " floats exceeds 2 GB; lower vector-store.memory.vectors-per-region");
+        }
+        try {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            initHeader(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open embedding file " + file, e);
+        }
+    }
+
+    private void initHeader(Path file) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        if (channel.size() >= HEADER_BYTES) {
+            channel.read(header, 0);
+            header.flip();
+            int magic = header.getInt();
+            int version = header.getInt();
+            int storedDimensions = header.getInt();
+            if (magic != MAGIC || version != VERSION) {
+                throw new IllegalStateException("Not an embedding file: " + file);
+            }
+            if (storedDimensions != dimensions) {
+                throw new IllegalStateException("Embedding file " + file + " has dimension " + storedDimensions
+                        + " but " + dimensions + " is configured");
+            }
+            log.info("Reopened embedding file {} ({} bytes)", file, channel.size());
+        } else {
+            header.putInt(MAGIC).putInt(VERSION).putInt(dimensions).putInt(0).flip();
+            channel.write(header, 0);
+        }
+    }
+
+    @Override
+    public void write(int slot, float[] embedding) {
+        if (embedding.length != dimensions) {
+            throw new IllegalArgumentException("Expected dimension " + dimensions + " but got " + embedding.length);
+        }
+        region(slot / vectorsPerRegion).put(offset(slot), embedding);
+    }
+
+    @Override
+    public float[] read(int slot, float[] scratch) {
+        float[] target = scratch != null && scratch.length == dimensions ? scratch : new float[dimensions];
+        region(slot / vectorsPerRegion).get(offset(slot), target);
+        return target;
+    }
+
+    @Override
+    public void release(int slot) {
+        // The slot is simply overwritten when reused.
+    }
+
+    @Override
+    public void flush() {
+        for (MappedByteBuffer mapping : mappings) {
+            mapping.force();
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int offset(int slot) {
+        return (slot % vectorsPerRegion) * dimensions;
+    }
+
+    private FloatBuffer region(int index) {
+        FloatBuffer[] current = regions;
+        if (index < current.length) {
+            return current[index];
+        }
+        return mapRegions(index);
+    }
+
+    private synchronized FloatBuffer mapRegions(int index) {
+        if (index < regions.length) {
+            return regions[index];
+        }
+        FloatBuffer[] grownRegions = Arrays.copyOf(regions, index + 1);
+        MappedByteBuffer[] grownMappings = Arrays.copyOf(mappings, index + 1);
+        try {
+            for (int i = regions.length; i <= index; i++) {
+                MappedByteBuffer mapping = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_BYTES + i * regionBytes, regionBytes);
+                grownMappings[i] = mapping;
+                grownRegions[i] = mapping.order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map embedding region " + index, e);
+        }
+        mappings = grownMappings;
+        regions = grownRegions;
+        return grownRegions[index];
+    }
+}
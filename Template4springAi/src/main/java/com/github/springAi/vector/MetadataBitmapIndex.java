@@ -0,0 +1,125 @@
+package com.github.springAi.vector;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Secondary index for {@link InMemoryVectorStore}: one Roaring bitmap of slots per (metadata key, value),
+ * so a filter resolves to its matching slots with bitmap AND (across keys) and OR (across the values of
+ * one key) before any vector is scored. Values are compared as strings, like {@link MetadataFilters}.
+ * <p>
+ * Every key is indexed except the configured unindexed ones (unique per segment, so a bitmap each would
+ * only cost memory). Callers still check the full filter on each selected segment, which covers
+ * unindexed keys and slots reused between the selection and the scan. Writes happen under the store's
+ * monitor, reads from concurrent searches, so access is guarded by a read/write lock.
+ */
+final class MetadataBitmapIndex {
+
+    private final Set<String> unindexedKeys;
+    private final Map<String, Map<String, RoaringBitmap>> bitmaps = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    MetadataBitmapIndex(Collection<String> unindexedKeys) {
+        this.unindexedKeys = Set.copyOf(unindexedKeys);
+    }
+
+    void add(int slot, Map<String, Object> metadata) {
+        if (metadata == null || metadata.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            metadata.forEach((key, value) -> {
+                if (value != null && !unindexedKeys.contains(key)) {
+                    bitmaps.computeIfAbsent(key, k -> new HashMap<>())
+                            .computeIfAbsent(String.valueOf(value), v -> new RoaringBitmap())
+                            .add(slot);
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(int slot, Map<String, Object> metadata) {
+        if (metadata == null || metadata.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            metadata.forEach((key, value) -> {
+                Map<String, RoaringBitmap> values = value == null ? null : bitmaps.get(key);
+                RoaringBitmap bitmap = values == null ? null : values.get(String.valueOf(value));
+                if (bitmap != null) {
+                    bitmap.remove(slot);
+                    if (bitmap.isEmpty()) {
+                        values.remove(String.valueOf(value));
+                    }
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param filters as accepted by {@link MetadataFilters#matches}; a collection value matches any of its elements.
+     * @return a fresh bitmap of the slots matching every filter on an indexed key (a superset of the exact
+     * result when some keys are unindexed), or null when no filter key is indexed.
+     */
+    RoaringBitmap select(Map<String, Object> filters) {
+        if (filters == null || filters.isEmpty()) {
+            return null;
+        }
+        RoaringBitmap result = null;
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<String, Object> filter : filters.entrySet()) {
+                if (unindexedKeys.contains(filter.getKey())) {
+                    continue;
+                }
+                RoaringBitmap matching = valuesOf(filter.getKey(), filter.getValue());
+                if (result == null) {
+                    result = matching;
+                } else {
+                    result.and(matching);
+                }
+                if (result.isEmpty()) {
+                    break; // nothing can match, whatever the other filters say
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    /**
+     * A fresh bitmap (safe to mutate) of the slots whose value for {@code key} is {@code value},
+     * or any of its elements when it is a collection.
+     */
+    private RoaringBitmap valuesOf(String key, Object value) {
+        Map<String, RoaringBitmap> values = bitmaps.getOrDefault(key, Map.of());
+        RoaringBitmap union = new RoaringBitmap();
+        if (value instanceof Collection<?> alternatives) {
+            for (Object alternative : alternatives) {
+                RoaringBitmap bitmap = values.get(String.valueOf(alternative));
+                if (bitmap != null) {
+                    union.or(bitmap);
+                }
+            }
+        } else {
+            RoaringBitmap bitmap = values.get(String.valueOf(value));
+            if (bitmap != null) {
+                union.or(bitmap);
+            }
+        }
+        return union;
+    }
+}
@@ -0,0 +1,57 @@
+package com.github.springAi.vector;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Metadata matching shared by the in-process stores, kept consistent with the
+ * {@code metadata->>'key' = value} semantics of {@link PostgresVectorStore}.
+ */
+public final class MetadataFilters {
+
+    /**
+     * Metadata key that scopes a segment to a talk (chat session).
+     */
+    public static final String TALK_ID = "talk_id";
+
+    private MetadataFilters() {
+    }
+
+    /**
+     * @return true when every filter entry is present in the metadata with the same string value;
+     * a collection filter value matches any of its elements.
+     */
+    public static boolean matches(Map<String, Object> metadata, Map<String, Object> filters) {
+        if (filters == null || filters.isEmpty()) {
+            return true;
+        }
+        if (metadata == null) {
+            return false;
+        }
+        for (Map.Entry<String, Object> filter : filters.entrySet()) {
+            Object actual = metadata.get(filter.getKey());
+            if (actual == null || !matchesValue(String.valueOf(actual), filter.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matchesValue(String actual, Object expected) {
+        if (expected instanceof Collection<?> alternatives) {
+            for (Object alternative : alternatives) {
+                if (actual.equals(String.valueOf(alternative))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return actual.equals(String.valueOf(expected));
+    }
+
+    public static boolean belongsToTalk(Map<String, Object> metadata, UUID talkId) {
+        return metadata != null && Objects.equals(String.valueOf(metadata.get(TALK_ID)), talkId.toString());
+    }
+}
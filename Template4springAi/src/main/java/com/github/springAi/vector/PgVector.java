@@ -0,0 +1,105 @@
+package com.github.springAi.vector;
+
+import org.postgresql.util.PGBinaryObject;
+import org.postgresql.util.PGobject;
+
+import java.nio.ByteBuffer;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * JDBC value for the pgvector {@code vector} type.
+ * <p>
+ * Once registered on a connection with {@code PGConnection.addDataType("vector", PgVector.class)},
+ * the driver binds it in pgvector's binary send/recv format: int16 dimension, int16 unused,
+ * then big-endian float4s. That is 4 bytes per dimension instead of roughly 10-12 characters of text
+ * per dimension for {@code Arrays.toString}, and no float parsing on either side. On connections
+ * where it is not registered the driver falls back to {@link #getValue()} text.
+ */
+public class PgVector extends PGobject implements PGBinaryObject {
+
+    private static final int HEADER_BYTES = 4;
+
+    private float[] values;
+
+    public PgVector() {
+        setType("vector");
+    }
+
+    public PgVector(float[] values) {
+        this();
+        this.values = values;
+    }
+
+    public float[] toArray() {
+        return values;
+    }
+
+    @Override
+    public void setValue(String value) throws SQLException {
+        if (value == null) {
+            values = null;
+            return;
+        }
+        String body = value.trim();
+        if (!body.startsWith("[") || !body.endsWith("]")) {
+            throw new SQLException("Not a vector literal: " + value);
+        }
+        body = body.substring(1, body.length() - 1).trim();
+        if (body.isEmpty()) {
+            values = new float[0];
+            return;
+        }
+        String[] parts = body.split(",");
+        values = new float[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            values[i] = Float.parseFloat(parts[i].trim());
+        }
+    }
+
+    @Override
+    public String getValue() {
+        if (values == null) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder(values.length * 10 + 2).append('[');
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(values[i]);
+        }
+        return sb.append(']').toString();
+    }
+
+    @Override
+    public void setByteValue(byte[] bytes, int offset) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, bytes.length - offset);
+        int dimensions = buffer.getShort() & 0xFFFF;
+        buffer.getShort(); // unused
+        values = new float[dimensions];
+        buffer.asFloatBuffer().get(values);
+    }
+
+    @Override
+    public int lengthInBytes() {
+        return values == null ? 0 : HEADER_BYTES + values.length * Float.BYTES;
+    }
+
+    @Override
+    public void toBytes(byte[] bytes, int offset) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, lengthInBytes());
+        buffer.putShort((short) values.length).putShort((short) 0);
+        buffer.asFloatBuffer().put(values);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof PgVector other && Arrays.equals(values, other.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(values);
+    }
+}
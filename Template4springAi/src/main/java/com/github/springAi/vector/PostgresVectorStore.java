@@ -1,35 +1,71 @@
 package com.github.springAi.vector;
 
 
-import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.springAi.domain.DocumentSegment;
+import com.github.springAi.embe.EmbeddingServiceProperties;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.postgresql.PGConnection;
+import org.postgresql.util.PGobject;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.io.IOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.OffsetDateTime;
 import java.util.*;
+import java.util.function.Consumer;
 
 @Slf4j
 @Repository
 @Profile("!test") // Use this for prod/dev, but not unit tests
+@ConditionalOnProperty(name = "vector-store.type", havingValue = "postgres", matchIfMissing = true)
 @RequiredArgsConstructor
 public class PostgresVectorStore implements VectorStoreRepository {
 
+    private static final int DELETE_CHUNK_SIZE = 10_000;
+    private static final int FETCH_SIZE = 1000;
+
     private final NamedParameterJdbcTemplate jdbc;
     private final ObjectMapper mapper;
+    private final VectorStoreProperties properties;
+    private final EmbeddingServiceProperties embeddingProperties;
+    private final ApplicationEventPublisher events;
+    private boolean binaryQuantized;
+    private boolean binaryVectors;
+    private VectorSegmentCopyLoader copyLoader;
+
+    @PostConstruct
+    public void init() {
+        copyLoader = new VectorSegmentCopyLoader(mapper);
+        binaryVectors = "binary".equalsIgnoreCase(properties.getPostgres().getVectorCodec());
+        String quantization = properties.getQuantization();
+        if ("int8".equalsIgnoreCase(quantization)) {
+            throw new IllegalStateException("vector-store.quantization=int8 is only supported by the in-memory store");
+        }
+        binaryQuantized = "binary".equalsIgnoreCase(quantization);
+    }
 
     /**
-     * TODO wait to fill bec the field change
+     * Upserts into vector_segments. The transaction keeps every statement on the connection
+     * the vector type was registered on. Batches of at least vector-store.postgres.copy-threshold
+     * rows are streamed with binary COPY instead of a JDBC batch.
      * @param segments
      * @param embeddings
      */
@@ -39,11 +75,24 @@ public class PostgresVectorStore implements VectorStoreRepository {
         if (segments.size() != embeddings.size()) {
             throw new IllegalArgumentException("Segments and embeddings size mismatch");
         }
+        if (segments.size() >= properties.getPostgres().getCopyThreshold()) {
+            int merged = jdbc.getJdbcTemplate().execute((ConnectionCallback<Integer>) con -> {
+                try {
+                    return copyLoader.load(con, segments, embeddings);
+                } catch (IOException e) {
+                    throw new SQLException("COPY into vector_segments_staging failed", e);
+                }
+            });
+            log.info("Copied batch of {} vectors to Postgres", merged);
+            publishAfterCommit(VectorStoreChangedEvent.upserted(segments));
+            return;
+        }
+        registerVectorType();
 
-        // Native Postgres Vector Syntax: cast(:embeddingStr as vector)
+        // Native Postgres Vector Syntax: cast(:embedding as vector)
         String sql = """
-            INSERT INTO vectors (id, talk_id, user_id, content, metadata, embedding, created_at)
-            VALUES (:id, :talkId, :userId, :content, cast(:metadata as jsonb), cast(:embeddingStr as vector), :createdAt)
+            INSERT INTO vector_segments (id, document_id, content, metadata, embedding, created_at)
+            VALUES (:id, :documentId, :content, cast(:metadata as jsonb), cast(:embedding as vector), :createdAt)
             ON CONFLICT (id) 
             DO UPDATE SET 
                 content = EXCLUDED.content,
@@ -64,7 +113,7 @@ public class PostgresVectorStore implements VectorStoreRepository {
                         .addValue("documentId", s.getDocumentId())
                         .addValue("content", s.getContent())
                         .addValue("metadata", mapper.writeValueAsString(s.getMetadata()))
-                        .addValue("embeddingStr", Arrays.toString(emb)) // Format: "[0.1, 0.2, ...]"
+                        .addValue("embedding", toVectorParameter(emb))
                         .addValue("createdAt", OffsetDateTime.now());
                 batchParams.add(params);
             } catch (JsonProcessingException e) {
@@ -74,19 +123,41 @@ public class PostgresVectorStore implements VectorStoreRepository {
 
         jdbc.batchUpdate(sql, batchParams.toArray(new MapSqlParameterSource[0]));
         log.info("Upserted batch of {} vectors to Postgres", segments.size());
+        publishAfterCommit(VectorStoreChangedEvent.upserted(segments));
     }
 
-    @SuppressWarnings("unchecked") // Suppress the warning for JsonParseException if it's not explicitly caught
+    @Override
+    @Transactional(readOnly = true)
     public List<DocumentSegment> search(float[] queryEmbedding, int topK, Map<String, Object> filters){
+        return query(queryEmbedding, topK, filters, false, (rs, rowNum) -> toSegment(rs));
+    }
+
+    /**
+     * Same query as {@link #search}, also returning the score and the stored embedding.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<VectorMatch> searchMatches(float[] queryEmbedding, int topK, Map<String, Object> filters) {
+        return query(queryEmbedding, topK, filters, true,
+                (rs, rowNum) -> new VectorMatch(toSegment(rs), rs.getFloat("score"), toFloatArray(rs.getObject("embedding"))));
+    }
+
+    private <T> List<T> query(float[] queryEmbedding, int topK, Map<String, Object> filters, boolean withEmbedding,
+                              RowMapper<T> rowMapper) {
+        registerVectorType();
+
         // Base SQL query for vector similarity search
         StringBuilder sqlBuilder = new StringBuilder("""
         SELECT id, document_id, content, metadata,
                1 - (embedding <=> cast(:queryVector as vector)) as score
-        FROM vector_segments
     """);
+        if (withEmbedding) {
+            sqlBuilder.append("        , embedding\n");
+        }
+        sqlBuilder.append("    FROM vector_segments\n");
 
         MapSqlParameterSource params = new MapSqlParameterSource()
-                .addValue("queryVector", Arrays.toString(queryEmbedding))
+                .addValue("queryVector", toVectorParameter(queryEmbedding))
                 .addValue("topK", topK);
 
         // --- DYNAMIC FILTERING LOGIC ---
@@ -96,39 +167,144 @@ public class PostgresVectorStore implements VectorStoreRepository {
             filters.forEach((key, value) -> {
                 // Use ->> operator to query JSONB text fields.
                 // This requires a GIN index on metadata for performance.
-                whereClauses.add("metadata->>:param_" + key + " = :value_" + key);
                 params.addValue("param_" + key, key);
-                params.addValue("value_" + key, String.valueOf(value)); // Cast value to string for '->>'
+                if (value instanceof Collection<?> alternatives && alternatives.isEmpty()) {
+                    whereClauses.add("FALSE");
+                } else if (value instanceof Collection<?> alternatives) {
+                    // Any of several values; the list is expanded to one bind parameter per element
+                    whereClauses.add("metadata->>:param_" + key + " IN (:value_" + key + ")");
+                    params.addValue("value_" + key, alternatives.stream().map(String::valueOf).toList());
+                } else {
+                    whereClauses.add("metadata->>:param_" + key + " = :value_" + key);
+                    params.addValue("value_" + key, String.valueOf(value)); // Cast value to string for '->>'
+                }
             });
             sqlBuilder.append(String.join(" AND ", whereClauses));
         }
 
         // Add ordering and limit
-        sqlBuilder.append(" ORDER BY embedding <=> cast(:queryVector as vector) ASC LIMIT :topK");
+        if (binaryQuantized) {
+            // First pass on the 1-bit codes (served by idx_vector_segments_embedding_bq), then re-rank
+            // the candidate pool by the exact cosine score computed above.
+            sqlBuilder.append(" ORDER BY binary_quantize(embedding)::bit(").append(embeddingProperties.getDimensions())
+                    .append(") <~> binary_quantize(cast(:queryVector as vector)) LIMIT :candidates");
+            sqlBuilder.insert(0, "SELECT * FROM (").append(") candidates ORDER BY score DESC LIMIT :topK");
+            params.addValue("candidates", topK * Math.max(1, properties.getRerankMultiplier()));
+        } else {
+            sqlBuilder.append(" ORDER BY embedding <=> cast(:queryVector as vector) ASC LIMIT :topK");
+        }
 
         String finalSql = sqlBuilder.toString();
         log.debug("Executing vector search query: {}", finalSql);
 
-        return jdbc.query(finalSql, params, (rs, rowNum) -> {
-            try {
-                return new DocumentSegment(
-                        UUID.fromString(rs.getString("id")),
-                        UUID.fromString(rs.getString("documentId")),
-                        mapper.readValue(rs.getString("metadata").getBytes(), Map.class),
-                        rs.getString("content")
+        return jdbc.query(finalSql, params, rowMapper);
+    }
 
-                );
-            } catch (JsonProcessingException e) {
-                throw new SQLException("Failed to parse metadata JSON", e);
-            } catch (IOException e) {
-                throw new JsonParseException("JSON PARSE appear wrong");
+    /**
+     * A vector column read back: {@link PgVector} when the binary codec registered it, else its text form.
+     */
+    private static float[] toFloatArray(Object value) throws SQLException {
+        if (value instanceof PgVector vector) {
+            return vector.toArray();
+        }
+        PgVector parsed = new PgVector();
+        parsed.setValue(value instanceof PGobject object ? object.getValue() : String.valueOf(value));
+        return parsed.toArray();
+    }
+
+    /**
+     * Streams the table with a server-side cursor (needs the transaction), so memory stays flat.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachSegment(Consumer<DocumentSegment> action) {
+        jdbc.getJdbcTemplate().query(con -> {
+            PreparedStatement statement = con.prepareStatement(
+                    "SELECT id, document_id, content, metadata FROM vector_segments");
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, (RowCallbackHandler) rs -> action.accept(toSegment(rs)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private DocumentSegment toSegment(ResultSet rs) throws SQLException {
+        try {
+            return new DocumentSegment(
+                    UUID.fromString(rs.getString("id")),
+                    UUID.fromString(rs.getString("document_id")),
+                    mapper.readValue(rs.getString("metadata").getBytes(), Map.class),
+                    rs.getString("content")
+
+            );
+        } catch (IOException e) {
+            throw new SQLException("Failed to parse metadata JSON", e);
+        }
+    }
+
+    /**
+     * Listeners (answer cache epoch, BM25 index) must not see rows that are not committed yet, or that
+     * roll back: inside a transaction the event is held until it commits.
+     */
+    private void publishAfterCommit(VectorStoreChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            events.publishEvent(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                events.publishEvent(event);
             }
         });
     }
 
+    /**
+     * Binary mode binds a {@link PgVector}; text mode keeps the legacy "[0.1, 0.2, ...]" string.
+     */
+    private Object toVectorParameter(float[] embedding) {
+        return binaryVectors ? new PgVector(embedding) : Arrays.toString(embedding);
+    }
+
+    /**
+     * Enables pgvector binary transfer on the current (transaction-bound) connection.
+     * Cheap after the first call on a pooled connection: the driver caches the type OID.
+     */
+    private void registerVectorType() {
+        if (!binaryVectors) {
+            return;
+        }
+        jdbc.getJdbcTemplate().execute((ConnectionCallback<Void>) con -> {
+            con.unwrap(PGConnection.class).addDataType("vector", PgVector.class);
+            return null;
+        });
+    }
+
     @Override
+    @Transactional
     public void deleteByTalkId(UUID talkId) {
-        String sql = "DELETE FROM vectors WHERE talk_id = :talkId";
-        jdbc.update(sql, new MapSqlParameterSource("talkId", talkId));
+        // Same metadata->> match as the search filters use
+        String sql = "DELETE FROM vector_segments WHERE metadata->>:talkKey = :talkId RETURNING id";
+        List<UUID> removed = jdbc.queryForList(sql, new MapSqlParameterSource()
+                .addValue("talkKey", MetadataFilters.TALK_ID)
+                .addValue("talkId", talkId.toString()), UUID.class);
+        if (!removed.isEmpty()) {
+            publishAfterCommit(VectorStoreChangedEvent.removed(removed));
+        }
+    }
+
+    @Override
+    @Transactional
+    public void deleteByIds(Collection<UUID> ids) {
+        List<UUID> all = List.copyOf(ids);
+        List<UUID> removed = new ArrayList<>();
+        // Keeps each statement well below the 65535 bind-parameter limit
+        for (int from = 0; from < all.size(); from += DELETE_CHUNK_SIZE) {
+            List<UUID> chunk = all.subList(from, Math.min(all.size(), from + DELETE_CHUNK_SIZE));
+            removed.addAll(jdbc.queryForList("DELETE FROM vector_segments WHERE id IN (:ids) RETURNING id",
+                    new MapSqlParameterSource("ids", chunk), UUID.class));
+        }
+        if (!removed.isEmpty()) {
+            publishAfterCommit(VectorStoreChangedEvent.removed(removed));
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,41 @@
+package com.github.springAi.vector;
+
+/**
+ * Compact per-slot codes of normalised embeddings, scanned as a cheap first pass before
+ * re-ranking a candidate pool with full-precision vectors.
+ */
+abstract class QuantizedCodes {
+
+    /**
+     * Scores slots against one prepared query. Higher is more similar;
+     * slots without a code score negative infinity.
+     */
+    @FunctionalInterface
+    interface Scorer {
+        float score(int slot);
+    }
+
+    /**
+     * @param mode "int8" or "binary"; anything else means no quantisation.
+     * @return the codes for the mode, or null for "none".
+     */
+    static QuantizedCodes create(String mode) {
+        return switch (mode == null ? "none" : mode.toLowerCase()) {
+            case "int8" -> new Int8Codes();
+            case "binary" -> new BinaryCodes();
+            case "none" -> null;
+            default -> throw new IllegalArgumentException("Unknown quantization mode: " + mode);
+        };
+    }
+
+    abstract void encode(int slot, float[] normalized);
+
+    abstract void release(int slot);
+
+    abstract Scorer scorer(float[] normalizedQuery);
+
+    /**
+     * @return bytes held per vector, for reports.
+     */
+    abstract int bytesPerVector(int dimensions);
+}
@@ -0,0 +1,92 @@
+package com.github.springAi.vector;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Measures an approximate search against exact brute force over the same corpus.
+ * Used by the shell commands to pick index settings before rolling them out.
+ */
+public final class RecallEvaluator {
+
+    private RecallEvaluator() {
+    }
+
+    public record Report(int queries, int k, double recall, double p50Micros, double p99Micros) {
+        @Override
+        public String toString() {
+            return String.format("recall@%d=%.4f over %d queries, p50=%.1fus, p99=%.1fus",
+                    k, recall, queries, p50Micros, p99Micros);
+        }
+    }
+
+    /**
+     * @param approximate returns the ids of the approximate top-k for a query; this call is timed.
+     * @param exact       returns the ids of the true top-k for a query.
+     */
+    public static Report evaluate(List<float[]> queries, int k,
+                                  Function<float[], int[]> approximate,
+                                  Function<float[], int[]> exact) {
+        long[] latencies = new long[queries.size()];
+        long hits = 0;
+        for (int q = 0; q < queries.size(); q++) {
+            float[] query = queries.get(q);
+            long start = System.nanoTime();
+            int[] found = approximate.apply(query);
+            latencies[q] = System.nanoTime() - start;
+
+            Set<Integer> truth = new HashSet<>();
+            for (int id : exact.apply(query)) {
+                truth.add(id);
+            }
+            for (int id : found) {
+                if (truth.contains(id)) {
+                    hits++;
+                }
+            }
+        }
+        Arrays.sort(latencies);
+        return new Report(queries.size(), k,
+                queries.isEmpty() ? 0 : (double) hits / ((long) queries.size() * k),
+                percentile(latencies, 0.50) / 1000.0,
+                percentile(latencies, 0.99) / 1000.0);
+    }
+
+    /**
+     * Exact cosine top-k by scanning the whole corpus.
+     */
+    public static int[] bruteForceTopK(float[][] corpus, float[] query, int k) {
+        PriorityQueue<double[]> worstFirst = new PriorityQueue<>((a, b) -> Double.compare(a[0], b[0]));
+        for (int i = 0; i < corpus.length; i++) {
+            double score = cosine(query, corpus[i]);
+            if (worstFirst.size() < k) {
+                worstFirst.add(new double[]{score, i});
+            } else if (score > worstFirst.peek()[0]) {
+                worstFirst.poll();
+                worstFirst.add(new double[]{score, i});
+            }
+        }
+        return worstFirst.stream().mapToInt(e -> (int) e[1]).toArray();
+    }
+
+    private static double cosine(float[] a, float[] b) {
+        double dot = 0.0, na = 0.0, nb = 0.0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            na += a[i] * a[i];
+            nb += b[i] * b[i];
+        }
+        return (na == 0 || nb == 0) ? 0.0 : dot / (Math.sqrt(na) * Math.sqrt(nb));
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+}
@@ -0,0 +1,33 @@
+package com.github.springAi.vector;
+
+/**
+ * Plain Java dot product. Four independent float accumulators let the JIT pipeline the
+ * multiply-adds; this is the fallback when the Vector API module is not available.
+ */
+public class ScalarSimilarityKernel implements SimilarityKernel {
+
+    @Override
+    public float dot(float[] a, float[] b) {
+        if (a.length != b.length) {
+            return 0f;
+        }
+        float s0 = 0f, s1 = 0f, s2 = 0f, s3 = 0f;
+        int upper = a.length & ~3;
+        int i = 0;
+        for (; i < upper; i += 4) {
+            s0 += a[i] * b[i];
+            s1 += a[i + 1] * b[i + 1];
+            s2 += a[i + 2] * b[i + 2];
+            s3 += a[i + 3] * b[i + 3];
+        }
+        for (; i < a.length; i++) {
+            s0 += a[i] * b[i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+}
@@ -0,0 +1,128 @@
+package com.github.springAi.vector;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.springAi.domain.DocumentSegment;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Append-only JSON-lines log mapping embedding slots to their segment metadata.
+ * It is the side index for {@link MappedEmbeddingStorage}: replayed on startup, then compacted
+ * so only the live entry for each slot remains.
+ */
+@Slf4j
+class SegmentIndexFile implements AutoCloseable {
+
+    record Entry(int slot, UUID id, UUID documentId, String content, Map<String, Object> metadata, boolean deleted) {
+
+        static Entry of(int slot, DocumentSegment segment) {
+            return new Entry(slot, segment.getId(), segment.getDocumentId(), segment.getContent(), segment.getMetadata(), false);
+        }
+
+        static Entry deleted(int slot) {
+            return new Entry(slot, null, null, null, null, true);
+        }
+
+        DocumentSegment toSegment() {
+            return new DocumentSegment(id, documentId, metadata, content);
+        }
+    }
+
+    private final Path file;
+    private final ObjectMapper mapper;
+    private BufferedWriter writer;
+
+    SegmentIndexFile(Path file, ObjectMapper mapper) {
+        this.file = file;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Replays the log, rewrites it with only the live entries and opens it for appending.
+     *
+     * @return the live entries keyed by slot.
+     */
+    synchronized Map<Integer, Entry> load() {
+        Map<Integer, Entry> live = new TreeMap<>();
+        try {
+            if (Files.exists(file)) {
+                try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (line.isBlank()) {
+                            continue;
+                        }
+                        Entry entry;
+                        try {
+                            entry = mapper.readValue(line, Entry.class);
+                        } catch (JsonProcessingException e) {
+                            // A torn final line from a crash; everything before it is intact.
+                            log.warn("Skipping unreadable segment index line in {}", file);
+                            continue;
+                        }
+                        if (entry.deleted()) {
+                            live.remove(entry.slot());
+                        } else {
+                            live.put(entry.slot(), entry);
+                        }
+                    }
+                }
+            }
+            compact(live);
+            writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load segment index " + file, e);
+        }
+        return live;
+    }
+
+    synchronized void append(Entry entry) {
+        try {
+            writer.write(mapper.writeValueAsString(entry));
+            writer.newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to segment index " + file, e);
+        }
+    }
+
+    synchronized void flush() {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void compact(Map<Integer, Entry> live) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            for (Entry entry : live.values()) {
+                out.write(mapper.writeValueAsString(entry));
+                out.newLine();
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,18 @@
+package com.github.springAi.vector;
+
+/**
+ * Dot product kernel used to score stored embeddings.
+ * The stores keep vectors L2-normalised, so the dot product is the cosine similarity.
+ */
+public interface SimilarityKernel {
+
+    /**
+     * @return the dot product of two vectors of equal length, or 0 when the lengths differ.
+     */
+    float dot(float[] a, float[] b);
+
+    /**
+     * @return a short name for logs and benchmark reports.
+     */
+    String name();
+}
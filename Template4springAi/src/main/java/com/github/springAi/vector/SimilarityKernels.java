@@ -0,0 +1,64 @@
+package com.github.springAi.vector;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Picks a {@link SimilarityKernel} and holds the vector helpers shared by the stores.
+ */
+@Slf4j
+public final class SimilarityKernels {
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+    private SimilarityKernels() {
+    }
+
+    /**
+     * @param kernel "auto" (Vector API when available, else scalar), "vector-api" or "scalar".
+     */
+    public static SimilarityKernel create(String kernel) {
+        boolean available = isVectorApiAvailable();
+        switch (kernel == null ? "auto" : kernel.toLowerCase()) {
+            case "scalar":
+                return new ScalarSimilarityKernel();
+            case "vector-api":
+                if (!available) {
+                    throw new IllegalStateException("vector-api kernel requested but the JVM was not started with --add-modules "
+                            + VECTOR_MODULE);
+                }
+                return new VectorApiSimilarityKernel();
+            case "auto":
+                if (available) {
+                    return new VectorApiSimilarityKernel();
+                }
+                log.info("{} is not in the module graph; using the scalar similarity kernel", VECTOR_MODULE);
+                return new ScalarSimilarityKernel();
+            default:
+                throw new IllegalArgumentException("Unknown similarity kernel: " + kernel);
+        }
+    }
+
+    public static boolean isVectorApiAvailable() {
+        return ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent();
+    }
+
+    /**
+     * @return an L2-normalised copy of the vector (a plain copy when its norm is zero).
+     */
+    public static float[] normalize(float[] vector) {
+        double sum = 0.0;
+        for (float x : vector) {
+            sum += (double) x * x;
+        }
+        float[] out = new float[vector.length];
+        if (sum == 0.0) {
+            System.arraycopy(vector, 0, out, 0, vector.length);
+            return out;
+        }
+        float inv = (float) (1.0 / Math.sqrt(sum));
+        for (int i = 0; i < vector.length; i++) {
+            out[i] = vector[i] * inv;
+        }
+        return out;
+    }
+}
@@ -0,0 +1,120 @@
+package com.github.springAi.vector;
+
+/**
+ * Fixed-capacity min-heap of (score, id) pairs in primitive arrays, keeping the {@code k} highest scores.
+ * Replaces sort-then-limit so a scan allocates O(k) instead of one boxed entry per candidate.
+ * Not thread-safe: give each partition of a scan its own heap and {@link #addAll merge} them.
+ */
+public final class TopKHeap {
+
+    private final float[] scores;
+    private final int[] ids;
+    private int size;
+
+    public TopKHeap(int k) {
+        this.scores = new float[Math.max(k, 0)];
+        this.ids = new int[Math.max(k, 0)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true when the heap is full, i.e. a new score must beat {@link #minScore()} to get in.
+     */
+    public boolean isFull() {
+        return size == scores.length;
+    }
+
+    /**
+     * The lowest score kept so far; only meaningful once {@link #isFull()}.
+     */
+    public float minScore() {
+        return scores[0];
+    }
+
+    public void offer(float score, int id) {
+        if (size < scores.length) {
+            scores[size] = score;
+            ids[size] = id;
+            siftUp(size++);
+        } else if (size > 0 && score > scores[0]) {
+            scores[0] = score;
+            ids[0] = id;
+            siftDown(0);
+        }
+    }
+
+    public void addAll(TopKHeap other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.scores[i], other.ids[i]);
+        }
+    }
+
+    /**
+     * Empties the heap into the given arrays, best first.
+     *
+     * @return the number of entries written.
+     */
+    public int drain(int[] idsOut, float[] scoresOut) {
+        int count = size;
+        for (int i = count - 1; i >= 0; i--) {
+            idsOut[i] = ids[0];
+            if (scoresOut != null) {
+                scoresOut[i] = scores[0];
+            }
+            size--;
+            scores[0] = scores[size];
+            ids[0] = ids[size];
+            siftDown(0);
+        }
+        return count;
+    }
+
+    /**
+     * Empties the heap and returns the ids, best first.
+     */
+    public int[] drainIds() {
+        int[] out = new int[size];
+        drain(out, null);
+        return out;
+    }
+
+    private void siftUp(int i) {
+        float score = scores[i];
+        int id = ids[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (scores[parent] <= score) {
+                break;
+            }
+            scores[i] = scores[parent];
+            ids[i] = ids[parent];
+            i = parent;
+        }
+        scores[i] = score;
+        ids[i] = id;
+    }
+
+    private void siftDown(int i) {
+        float score = scores[i];
+        int id = ids[i];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < size && scores[right] < scores[child]) {
+                child = right;
+            }
+            if (score <= scores[child]) {
+                break;
+            }
+            scores[i] = scores[child];
+            ids[i] = ids[child];
+            i = child;
+        }
+        scores[i] = score;
+        ids[i] = id;
+    }
+}
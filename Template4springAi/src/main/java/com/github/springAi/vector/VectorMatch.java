@@ -0,0 +1,14 @@
+package com.github.springAi.vector;
+
+import com.github.springAi.domain.DocumentSegment;
+
+/**
+ * A search hit together with what second-stage ranking needs.
+ *
+ * @param segment   the stored segment.
+ * @param score     cosine similarity to the query, higher is closer; NaN when the store did not score it.
+ * @param embedding the stored vector, possibly the store's own array: read it, never modify it.
+ *                  Null when the hit did not come from the vector store (e.g. lexical-only hits).
+ */
+public record VectorMatch(DocumentSegment segment, float score, float[] embedding) {
+}
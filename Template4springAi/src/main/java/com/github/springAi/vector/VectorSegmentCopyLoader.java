@@ -0,0 +1,152 @@
+package com.github.springAi.vector;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.springAi.domain.DocumentSegment;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Bulk path for {@link PostgresVectorStore#upsertBatch}: streams rows with binary COPY into a
+ * session-local staging table, then merges them into vector_segments with one set-based upsert.
+ * Must run inside a transaction, since the staging table is cleared on commit.
+ */
+@Slf4j
+@RequiredArgsConstructor
+class VectorSegmentCopyLoader {
+
+    private static final byte[] COPY_SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+    private static final OffsetDateTime POSTGRES_EPOCH = OffsetDateTime.parse("2000-01-01T00:00:00Z");
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private static final String CREATE_STAGING = """
+            CREATE TEMP TABLE IF NOT EXISTS vector_segments_staging
+                (LIKE vector_segments INCLUDING DEFAULTS) ON COMMIT DELETE ROWS
+            """;
+
+    private static final String COPY = """
+            COPY vector_segments_staging (id, document_id, content, metadata, embedding, created_at)
+            FROM STDIN (FORMAT binary)
+            """;
+
+    private static final String MERGE = """
+            INSERT INTO vector_segments (id, document_id, content, metadata, embedding, created_at)
+            SELECT id, document_id, content, metadata, embedding, created_at FROM vector_segments_staging
+            ON CONFLICT (id)
+            DO UPDATE SET
+                content = EXCLUDED.content,
+                metadata = EXCLUDED.metadata,
+                embedding = EXCLUDED.embedding,
+                created_at = EXCLUDED.created_at
+            """;
+
+    private final ObjectMapper mapper;
+
+    /**
+     * @return the number of rows inserted or updated.
+     */
+    int load(Connection connection, List<DocumentSegment> segments, List<float[]> embeddings)
+            throws SQLException, IOException {
+        // ON CONFLICT cannot touch the same row twice in one statement, so the last occurrence wins here.
+        Map<UUID, Integer> lastIndexById = new LinkedHashMap<>();
+        for (int i = 0; i < segments.size(); i++) {
+            lastIndexById.put(segments.get(i).getId(), i);
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_STAGING);
+            statement.execute("TRUNCATE vector_segments_staging");
+        }
+
+        PGCopyOutputStream copy = new PGCopyOutputStream(connection.unwrap(PGConnection.class), COPY, BUFFER_BYTES);
+        long copied;
+        try {
+            DataOutputStream out = new DataOutputStream(copy);
+            out.write(COPY_SIGNATURE);
+            out.writeInt(0); // flags
+            out.writeInt(0); // header extension length
+            for (int i : lastIndexById.values()) {
+                writeRow(out, segments.get(i), embeddings.get(i));
+            }
+            out.writeShort(-1); // trailer
+            out.flush();
+            copied = copy.endCopy();
+        } catch (IOException | SQLException | RuntimeException e) {
+            if (copy.isActive()) {
+                copy.cancelCopy();
+            }
+            throw e;
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            int merged = statement.executeUpdate(MERGE);
+            log.debug("COPY staged {} rows, merged {}", copied, merged);
+            return merged;
+        }
+    }
+
+    private void writeRow(DataOutputStream out, DocumentSegment segment, float[] embedding) throws IOException {
+        byte[] metadata;
+        try {
+            metadata = mapper.writeValueAsBytes(segment.getMetadata());
+        } catch (JsonProcessingException e) {
+            log.error("Error serializing metadata for segment {}", segment.getId(), e);
+            return;
+        }
+        out.writeShort(6);
+        writeUuid(out, segment.getId());
+        writeUuid(out, segment.getDocumentId());
+        writeBytes(out, segment.getContent() == null ? null : segment.getContent().getBytes(StandardCharsets.UTF_8));
+
+        // jsonb binary format: a version byte, then the JSON text
+        out.writeInt(metadata.length + 1);
+        out.writeByte(1);
+        out.write(metadata);
+
+        // pgvector binary format, the same layout as PgVector
+        out.writeInt(4 + embedding.length * Float.BYTES);
+        out.writeShort(embedding.length);
+        out.writeShort(0);
+        for (float value : embedding) {
+            out.writeFloat(value);
+        }
+
+        // timestamptz: microseconds since 2000-01-01 UTC
+        out.writeInt(Long.BYTES);
+        out.writeLong(ChronoUnit.MICROS.between(POSTGRES_EPOCH, OffsetDateTime.now()));
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID id) throws IOException {
+        if (id == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(16);
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        if (bytes == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
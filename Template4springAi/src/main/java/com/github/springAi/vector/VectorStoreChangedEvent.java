@@ -0,0 +1,29 @@
+package com.github.springAi.vector;
+
+import com.github.springAi.domain.DocumentSegment;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published by every {@link VectorStoreRepository} after segments were written or removed,
+ * so derived state (answer cache, lexical index) can follow the store.
+ *
+ * @param upserted   segments inserted or replaced, with their new content and metadata.
+ * @param removedIds ids of segments that no longer exist.
+ */
+public record VectorStoreChangedEvent(List<DocumentSegment> upserted, Collection<UUID> removedIds) {
+
+    public static VectorStoreChangedEvent upserted(List<DocumentSegment> segments) {
+        return new VectorStoreChangedEvent(List.copyOf(segments), List.of());
+    }
+
+    public static VectorStoreChangedEvent removed(Collection<UUID> ids) {
+        return new VectorStoreChangedEvent(List.of(), List.copyOf(ids));
+    }
+
+    public boolean isEmpty() {
+        return upserted.isEmpty() && removedIds.isEmpty();
+    }
+}
@@ -0,0 +1,100 @@
+package com.github.springAi.vector;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+@ShellComponent
+@RequiredArgsConstructor
+public class VectorStoreCommands {
+
+    private final VectorStoreProperties properties;
+
+    @ShellMethod(key = "hnsw-recall", value = "Compare HNSW search against brute force on a synthetic corpus")
+    public String hnswRecall(@ShellOption(help = "Corpus size", defaultValue = "50000") int size,
+                             @ShellOption(help = "Vector dimension", defaultValue = "384") int dimensions,
+                             @ShellOption(help = "Number of queries", defaultValue = "200") int queries,
+                             @ShellOption(help = "Results per query", defaultValue = "10") int k,
+                             @ShellOption(help = "HNSW M", defaultValue = "16") int m,
+                             @ShellOption(help = "HNSW efConstruction", defaultValue = "200") int efConstruction,
+                             @ShellOption(help = "HNSW efSearch", defaultValue = "64") int efSearch) {
+        Random random = new Random(42);
+        float[][] corpus = randomVectors(random, size, dimensions);
+
+        HnswIndex<Integer> index = new HnswIndex<>(m, efConstruction, SimilarityKernels.create(properties.getKernel()));
+        long buildStart = System.nanoTime();
+        IntStream.range(0, size).parallel().forEach(i -> index.add(i, corpus[i]));
+        long buildMillis = (System.nanoTime() - buildStart) / 1_000_000;
+
+        List<float[]> queryVectors = List.of(randomVectors(random, queries, dimensions));
+        // Warm up the JIT before timing
+        queryVectors.forEach(q -> index.search(q, k, efSearch, null));
+
+        RecallEvaluator.Report report = RecallEvaluator.evaluate(queryVectors, k,
+                q -> index.search(q, k, efSearch, null).stream().mapToInt(HnswIndex.Match::item).toArray(),
+                q -> RecallEvaluator.bruteForceTopK(corpus, q, k));
+        return String.format("Built %d x %d in %d ms; %s", size, dimensions, buildMillis, report);
+    }
+
+    @ShellMethod(key = "quantization-recall", value = "Report recall@k of int8 and binary first-pass search with re-ranking")
+    public String quantizationRecall(@ShellOption(help = "Corpus size", defaultValue = "50000") int size,
+                                     @ShellOption(help = "Vector dimension", defaultValue = "1536") int dimensions,
+                                     @ShellOption(help = "Number of queries", defaultValue = "100") int queries,
+                                     @ShellOption(help = "Results per query", defaultValue = "10") int k,
+                                     @ShellOption(help = "Re-rank pool multipliers to try", defaultValue = "1,2,4,8") String multipliers) {
+        Random random = new Random(42);
+        float[][] corpus = randomVectors(random, size, dimensions);
+        for (int i = 0; i < corpus.length; i++) {
+            corpus[i] = SimilarityKernels.normalize(corpus[i]);
+        }
+        List<float[]> queryVectors = List.of(randomVectors(random, queries, dimensions));
+        SimilarityKernel kernel = SimilarityKernels.create(properties.getKernel());
+
+        StringBuilder report = new StringBuilder(String.format("%d x %d, float32 = %d bytes/vector%n",
+                size, dimensions, dimensions * Float.BYTES));
+        for (String mode : List.of("int8", "binary")) {
+            QuantizedCodes codes = QuantizedCodes.create(mode);
+            for (int slot = 0; slot < corpus.length; slot++) {
+                codes.encode(slot, corpus[slot]);
+            }
+            for (String multiplier : multipliers.split(",")) {
+                int pool = k * Integer.parseInt(multiplier.trim());
+                RecallEvaluator.Report result = RecallEvaluator.evaluate(queryVectors, k,
+                        q -> quantizedSearch(codes, kernel, corpus, SimilarityKernels.normalize(q), k, pool),
+                        q -> RecallEvaluator.bruteForceTopK(corpus, q, k));
+                report.append(String.format("%-6s %4d bytes/vector, pool %4d: %s%n",
+                        mode, codes.bytesPerVector(dimensions), pool, result));
+            }
+        }
+        return report.toString();
+    }
+
+    private static int[] quantizedSearch(QuantizedCodes codes, SimilarityKernel kernel, float[][] corpus,
+                                         float[] query, int k, int pool) {
+        QuantizedCodes.Scorer approximate = codes.scorer(query);
+        TopKHeap candidates = new TopKHeap(pool);
+        for (int slot = 0; slot < corpus.length; slot++) {
+            candidates.offer(approximate.score(slot), slot);
+        }
+        TopKHeap best = new TopKHeap(k);
+        for (int slot : candidates.drainIds()) {
+            best.offer(kernel.dot(query, corpus[slot]), slot);
+        }
+        return best.drainIds();
+    }
+
+    private static float[][] randomVectors(Random random, int count, int dimensions) {
+        float[][] vectors = new float[count][dimensions];
+        for (float[] v : vectors) {
+            for (int i = 0; i < dimensions; i++) {
+                v[i] = (float) random.nextGaussian();
+            }
+        }
+        return vectors;
+    }
+}
@@ -0,0 +1,111 @@
+package com.github.springAi.vector;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.List;
+
+@Data
+@Validated
+@Configuration
+@ConfigurationProperties(prefix = "vector-store")
+public class VectorStoreProperties {
+
+    /**
+     * The active vector store. Can be "postgres" or "hnsw".
+     */
+    private String type = "postgres";
+
+    /**
+     * Similarity kernel for the in-process stores: "auto", "vector-api" or "scalar".
+     * "auto" uses the Vector API when the JVM runs with --add-modules jdk.incubator.vector.
+     */
+    private String kernel = "auto";
+
+    /**
+     * Quantised first-pass search: "none", "int8" (1 byte per dimension) or "binary" (1 bit per dimension).
+     * Candidates from the first pass are re-ranked with exact cosine. Postgres supports "none" and "binary".
+     */
+    private String quantization = "none";
+
+    /**
+     * Candidate pool size for re-ranking, as a multiple of topK. Check recall with the quantization-recall command.
+     */
+    private int rerankMultiplier = 4;
+
+    /**
+     * Configuration for the in-process HNSW graph store.
+     */
+    private HnswProperties hnsw = new HnswProperties();
+
+    /**
+     * Configuration for the brute-force in-memory store.
+     */
+    private MemoryProperties memory = new MemoryProperties();
+
+    /**
+     * Configuration for the pgvector store.
+     */
+    private PostgresProperties postgres = new PostgresProperties();
+
+    @Data
+    public static class HnswProperties {
+        /**
+         * Max neighbours per node on the upper layers. Layer 0 keeps twice as many.
+         */
+        private int m = 16;
+
+        /**
+         * Size of the dynamic candidate list while inserting. Higher builds a better graph, slower.
+         */
+        private int efConstruction = 200;
+
+        /**
+         * Size of the dynamic candidate list while searching. Raised to topK when smaller.
+         * This is the main recall vs latency knob.
+         */
+        private int efSearch = 64;
+    }
+
+    @Data
+    public static class MemoryProperties {
+        /**
+         * Where embeddings are kept. "heap" holds one float[] per segment and is lost on restart;
+         * "mapped" packs them into a memory-mapped file under {@code directory} and reloads it on startup.
+         */
+        private String storage = "heap";
+
+        /**
+         * Directory for the mapped embedding file and its segment index.
+         */
+        private String directory = "./data/vectors";
+
+        /**
+         * Vectors per mapped region. Each region must stay under 2 GB (1536 dims x 65536 = 384 MB).
+         */
+        private int vectorsPerRegion = 65536;
+
+        /**
+         * Metadata keys left out of the filter bitmap index because their values are unique per segment;
+         * filters on them are checked segment by segment.
+         */
+        private List<String> unindexedMetadataKeys = List.of("chunk_sha256", "token_count");
+    }
+
+    @Data
+    public static class PostgresProperties {
+        /**
+         * How vectors are bound as JDBC parameters: "binary" uses pgvector's binary send/recv format,
+         * "text" sends the decimal string literal.
+         */
+        private String vectorCodec = "binary";
+
+        /**
+         * Batches with at least this many rows are loaded with binary COPY through a staging table
+         * instead of a JDBC batch insert.
+         */
+        private int copyThreshold = 1000;
+    }
+}
@@ -2,9 +2,11 @@ package com.github.springAi.vector;
 
 import com.github.springAi.domain.DocumentSegment;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface VectorStoreRepository {
     /**
@@ -20,9 +22,29 @@ public interface VectorStoreRepository {
      * @param filters        A map of metadata key-value pairs to apply as a WHERE clause. Can be null or empty.
      * @return A list of matching DocumentSegments.
      */
-    List<DocumentSegment> search(float[] queryEmbedding, int topK, Map<String, Object> filters);
+    default List<DocumentSegment> search(float[] queryEmbedding, int topK, Map<String, Object> filters) {
+        return searchMatches(queryEmbedding, topK, filters).stream().map(VectorMatch::segment).toList();
+    }
+
+    /**
+     * Like {@link #search}, but each hit carries its similarity score and stored embedding,
+     * e.g. for diversity re-ranking.
+     */
+    List<VectorMatch> searchMatches(float[] queryEmbedding, int topK, Map<String, Object> filters);
     /**
      * Delete vectors for a specific talk (cleanup).
      */
     void deleteByTalkId(UUID talkId);
-}
\ No newline at end of file
+
+    /**
+     * Delete specific segments, e.g. chunks that no longer exist in a re-ingested document.
+     * Unknown ids are ignored.
+     */
+    void deleteByIds(Collection<UUID> ids);
+
+    /**
+     * Visits every stored segment, e.g. to rebuild an index derived from the store at startup.
+     * Segments written concurrently may or may not be visited.
+     */
+    void forEachSegment(Consumer<DocumentSegment> action);
+}
@@ -0,0 +1,77 @@
+package com.github.springAi.Retriever;
+
+import com.github.springAi.config.RagServiceProperties;
+import com.github.springAi.domain.DocumentSegment;
+import com.github.springAi.vector.VectorStoreChangedEvent;
+import com.github.springAi.vector.VectorStoreRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class Bm25IndexTest {
+
+    private final DocumentSegment timeout = segment("Connection failed with ERR-1042 after the timeout expired.", "a");
+    private final DocumentSegment retry = segment("Retries use exponential backoff; the timeout doubles each time.", "b");
+    private final DocumentSegment unrelated = segment("The release notes list the new dashboard features.", "a");
+
+    private Bm25Index index;
+
+    @BeforeEach
+    void setUp() {
+        index = new Bm25Index(mock(VectorStoreRepository.class), new RagServiceProperties());
+        index.rebuild();
+        index.onStoreChanged(VectorStoreChangedEvent.upserted(List.of(timeout, retry, unrelated)));
+    }
+
+    @Test
+    void exactIdentifierRanksItsSegmentFirst() {
+        assertThat(index.search("what does err-1042 mean", 3, null)).containsExactly(timeout);
+        assertThat(index.search("timeout", 3, null)).containsExactlyInAnyOrder(timeout, retry);
+    }
+
+    @Test
+    void rarerTermsWeighMore() {
+        // "backoff" appears once in the corpus, "timeout" twice
+        assertThat(index.search("timeout backoff", 3, null)).first().isEqualTo(retry);
+    }
+
+    @Test
+    void filtersAreAppliedToMatches() {
+        assertThat(index.search("timeout", 3, Map.of("talk_id", "b"))).containsExactly(retry);
+    }
+
+    @Test
+    void removedAndReplacedSegmentsAreReindexed() {
+        index.onStoreChanged(VectorStoreChangedEvent.removed(Set.of(timeout.getId())));
+        assertThat(index.search("ERR-1042", 3, null)).isEmpty();
+        assertThat(index.size()).isEqualTo(2);
+
+        DocumentSegment edited = new DocumentSegment(retry.getId(), retry.getDocumentId(), retry.getMetadata(),
+                "Retries now fail fast with ERR-2001.");
+        index.onStoreChanged(VectorStoreChangedEvent.upserted(List.of(edited)));
+        assertThat(index.search("backoff", 3, null)).isEmpty();
+        assertThat(index.search("ERR-2001", 3, null)).containsExactly(edited);
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void compoundIdentifiersAreEmittedWholeAndByPart() {
+        List<String> terms = new ArrayList<>();
+
+        Bm25Index.tokenize("See com.acme.Foo, v2.3.1!", terms::add);
+
+        assertThat(terms).containsExactly("see", "com.acme.foo", "com", "acme", "foo", "v2.3.1", "v2", "3", "1");
+    }
+
+    private static DocumentSegment segment(String content, String talkId) {
+        return new DocumentSegment(UUID.randomUUID(), UUID.randomUUID(), Map.of("talk_id", talkId), content);
+    }
+}
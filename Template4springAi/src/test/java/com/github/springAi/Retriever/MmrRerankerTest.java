@@ -0,0 +1,67 @@
+package com.github.springAi.Retriever;
+
+import com.github.springAi.config.RagServiceProperties;
+import com.github.springAi.domain.DocumentSegment;
+import com.github.springAi.vector.VectorMatch;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MmrRerankerTest {
+
+    private static final float[] QUERY = {1f, 0f, 0f};
+
+    private final MmrReranker reranker = new MmrReranker(new RagServiceProperties());
+
+    @Test
+    void nearDuplicateGivesWayToADifferentRelevantCandidate() {
+        VectorMatch passage = match(0.8f, 0.6f, 0f);
+        VectorMatch overlap = match(0.79f, 0.61f, 0f); // the same passage, chunked with overlap
+        VectorMatch other = match(0.75f, -0.66f, 0f);
+
+        List<VectorMatch> reranked = reranker.rerank("q", QUERY, List.of(passage, overlap, other), 2);
+
+        assertThat(reranked).containsExactly(passage, other);
+    }
+
+    @Test
+    void relevanceIsTheQueryCosineNotTheIncomingOrder() {
+        VectorMatch weak = match(0.2f, 0.98f, 0f);
+        VectorMatch strong = match(0.98f, 0f, 0.2f);
+
+        assertThat(reranker.rerank("q", QUERY, List.of(weak, strong), 2)).containsExactly(strong, weak);
+    }
+
+    @Test
+    void lexicalHitsWithoutEmbeddingsKeepTheirRank() {
+        VectorMatch first = lexical();
+        VectorMatch second = lexical();
+        VectorMatch third = lexical();
+
+        assertThat(reranker.rerank("q", QUERY, List.of(first, second, third), 3)).containsExactly(first, second, third);
+    }
+
+    @Test
+    void fewerThanTwoResultsAreReturnedUnchanged() {
+        VectorMatch only = match(1f, 0f, 0f);
+
+        assertThat(reranker.rerank("q", QUERY, List.of(only, match(0f, 1f, 0f)), 1)).containsExactly(only);
+        assertThat(reranker.rerank("q", QUERY, List.of(), 5)).isEmpty();
+    }
+
+    private static VectorMatch match(float... embedding) {
+        return new VectorMatch(segment(), 0f, embedding);
+    }
+
+    private static VectorMatch lexical() {
+        return new VectorMatch(segment(), 0f, null);
+    }
+
+    private static DocumentSegment segment() {
+        return new DocumentSegment(UUID.randomUUID(), UUID.randomUUID(), Map.of(), "text");
+    }
+}
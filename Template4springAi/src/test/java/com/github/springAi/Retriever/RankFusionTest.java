@@ -0,0 +1,60 @@
+package com.github.springAi.Retriever;
+
+import com.github.springAi.domain.DocumentSegment;
+import com.github.springAi.vector.VectorMatch;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RankFusionTest {
+
+    private final DocumentSegment a = segment("a");
+    private final DocumentSegment b = segment("b");
+    private final DocumentSegment c = segment("c");
+    private final DocumentSegment d = segment("d");
+
+    @Test
+    void segmentsRankedByBothListsComeFirst() {
+        List<VectorMatch> vector = List.of(match(a, 0.9f), match(b, 0.8f), match(c, 0.7f));
+        List<VectorMatch> lexical = List.of(lexical(c), lexical(d));
+
+        List<VectorMatch> fused = RankFusion.reciprocal(List.of(vector, lexical), 60, 4);
+
+        // b and d tie at rank 2 of one list each; b was seen first
+        assertThat(fused).extracting(VectorMatch::segment).containsExactly(c, a, b, d);
+    }
+
+    @Test
+    void theFirstRankingsMatchIsKept() {
+        VectorMatch withEmbedding = match(a, 0.9f);
+
+        List<VectorMatch> fused = RankFusion.reciprocal(List.of(List.of(withEmbedding), List.of(lexical(a))), 60, 1);
+
+        assertThat(fused).containsExactly(withEmbedding);
+    }
+
+    @Test
+    void tiesKeepTheOrderOfTheFirstRankingAndTopKTrims() {
+        List<VectorMatch> vector = List.of(match(a, 0.9f), match(b, 0.8f));
+        List<VectorMatch> lexical = List.of(lexical(b), lexical(a));
+
+        assertThat(RankFusion.reciprocal(List.of(vector, lexical), 60, 1))
+                .extracting(VectorMatch::segment).containsExactly(a);
+    }
+
+    private static VectorMatch match(DocumentSegment segment, float score) {
+        return new VectorMatch(segment, score, new float[]{score, 1 - score});
+    }
+
+    private static VectorMatch lexical(DocumentSegment segment) {
+        return new VectorMatch(segment, 0f, null);
+    }
+
+    private static DocumentSegment segment(String content) {
+        return new DocumentSegment(UUID.randomUUID(), UUID.randomUUID(), Map.of(), content);
+    }
+}
@@ -0,0 +1,115 @@
+package com.github.springAi.controller;
+
+import com.github.springAi.Retriever.RetrievalResult;
+import com.github.springAi.Retriever.VectorStoreRetriever;
+import com.github.springAi.config.RagServiceProperties;
+import com.github.springAi.domain.DocumentSegment;
+import com.github.springAi.embe.EmbeddingServiceProperties;
+import com.github.springAi.service.ContextPacker;
+import com.github.springAi.service.DownstreamLimiters;
+import com.github.springAi.service.RAGService;
+import com.github.springAi.service.StageObservations;
+import com.github.springAi.service.TokenCounter;
+import com.github.springAi.vector.VectorStoreProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(RAGController.class)
+@Import({RAGService.class, ContextPacker.class, DownstreamLimiters.class, TokenCounter.class, StageObservations.class,
+        RagServiceProperties.class, EmbeddingServiceProperties.class, VectorStoreProperties.class,
+        RAGControllerTest.FakeChatModelConfig.class})
+class RAGControllerTest {
+
+    private static final List<String> TOKENS = List.of("Retrieval ", "augmented ", "generation");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private VectorStoreRetriever retriever;
+
+    @TestConfiguration
+    static class FakeChatModelConfig {
+        @Bean
+        ChatModel chatModel() {
+            return new ChatModel() {
+                @Override
+                public ChatResponse call(Prompt prompt) {
+                    return response(String.join("", TOKENS));
+                }
+
+                @Override
+                public Flux<ChatResponse> stream(Prompt prompt) {
+                    return Flux.fromIterable(TOKENS).map(FakeChatModelConfig::response);
+                }
+            };
+        }
+
+        private static ChatResponse response(String text) {
+            return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+        }
+    }
+
+    @Test
+    void streamSendsSourcesThenEachTokenThenDone() throws Exception {
+        DocumentSegment segment = new DocumentSegment(UUID.randomUUID(), UUID.randomUUID(),
+                Map.of("file_name", "rag.md"), "RAG grounds answers in retrieved text.");
+        AtomicReference<Thread> retrievalThread = new AtomicReference<>();
+        when(retriever.retrieveWithEmbedding(any(), anyInt(), any())).thenAnswer(invocation -> {
+            retrievalThread.set(Thread.currentThread());
+            return new RetrievalResult(new float[]{1f}, List.of(segment));
+        });
+
+        MvcResult started = mockMvc.perform(post("/api/v1/rag/query/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .content("{\"question\": \"What is RAG?\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> events = body.lines()
+                .filter(line -> line.startsWith("event:"))
+                .map(line -> line.substring("event:".length()))
+                .toList();
+        List<String> data = body.lines()
+                .filter(line -> line.startsWith("data:"))
+                .map(line -> line.substring("data:".length()))
+                .toList();
+        assertThat(events).containsExactly("sources", "token", "token", "token", "done");
+        assertThat(data.get(0)).contains(segment.getId().toString(), "rag.md");
+        assertThat(data.subList(1, 4)).containsExactlyElementsOf(TOKENS);
+        // Blocking retrieval stays on the request thread rather than a capped scheduler pool
+        assertThat(retrievalThread.get()).isSameAs(Thread.currentThread());
+    }
+}
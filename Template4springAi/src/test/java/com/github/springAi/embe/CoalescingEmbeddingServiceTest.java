@@ -0,0 +1,129 @@
+package com.github.springAi.embe;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CoalescingEmbeddingServiceTest {
+
+    private final List<List<String>> calls = new CopyOnWriteArrayList<>();
+    private CoalescingEmbeddingService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.close();
+        }
+    }
+
+    @Test
+    void concurrentQueriesShareOneCallAndIdenticalTextsAreEmbeddedOnce() throws Exception {
+        service = coalescing(Duration.ofMillis(200), 4, this::lengths);
+
+        List<CompletableFuture<EmbeddingMatrix>> results = new ArrayList<>();
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String text : List.of("a", "bb", "bb", "cccc")) {
+                results.add(CompletableFuture.supplyAsync(() -> service.embedMatrix(List.of(text)), callers));
+            }
+        }
+
+        assertThat(results).extracting(r -> r.get().get(0, 0)).containsExactly(1f, 2f, 2f, 4f);
+        assertThat(calls).hasSize(1);
+        assertThat(calls.get(0)).containsExactlyInAnyOrder("a", "bb", "cccc");
+    }
+
+    @Test
+    void batchesGoStraightToTheDelegate() {
+        service = coalescing(Duration.ofSeconds(10), 32, this::lengths);
+
+        EmbeddingMatrix matrix = service.embedMatrix(List.of("a", "bb"));
+
+        assertThat(matrix.rows()).isEqualTo(2);
+        assertThat(calls).containsExactly(List.of("a", "bb"));
+    }
+
+    @Test
+    void anErrorFromTheDelegateReachesTheCaller() {
+        service = coalescing(Duration.ofMillis(1), 32, texts -> {
+            throw new LinkageError("provider client missing");
+        });
+
+        CompletableFuture<EmbeddingMatrix> result = CompletableFuture.supplyAsync(() -> service.embedMatrix(List.of("a")));
+
+        assertThat(result).failsWithin(Duration.ofSeconds(5))
+                .withThrowableOfType(ExecutionException.class)
+                .withCauseInstanceOf(LinkageError.class);
+    }
+
+    @Test
+    void closeFailsQueriesStillWaitingAndLaterCallsBypassTheCoalescer() throws Exception {
+        service = coalescing(Duration.ofSeconds(30), 32, this::lengths);
+        CompletableFuture<EmbeddingMatrix> waiting = CompletableFuture.supplyAsync(() -> service.embedMatrix(List.of("a")));
+        TimeUnit.MILLISECONDS.sleep(100); // taken into the collector's window, which waits for more
+
+        service.close();
+
+        assertThat(waiting).failsWithin(Duration.ofSeconds(5))
+                .withThrowableOfType(ExecutionException.class)
+                .withCauseInstanceOf(IllegalStateException.class);
+        assertThat(service.embedMatrix(List.of("bb")).get(0, 0)).isEqualTo(2f);
+        assertThat(calls).containsExactly(List.of("bb"));
+    }
+
+    private CoalescingEmbeddingService coalescing(Duration maxWait, int maxBatchSize,
+                                                  Function<List<String>, EmbeddingMatrix> delegate) {
+        EmbeddingServiceProperties.CoalesceProperties properties = new EmbeddingServiceProperties.CoalesceProperties();
+        properties.setMaxWait(maxWait);
+        properties.setMaxBatchSize(maxBatchSize);
+        return new CoalescingEmbeddingService(new RecordingEmbeddingService(delegate), properties);
+    }
+
+    /**
+     * One-dimensional vectors holding each text's length.
+     */
+    private EmbeddingMatrix lengths(List<String> texts) {
+        EmbeddingMatrix matrix = new EmbeddingMatrix(texts.size(), 1);
+        for (int i = 0; i < texts.size(); i++) {
+            matrix.set(i, 0, texts.get(i).length());
+        }
+        return matrix;
+    }
+
+    private class RecordingEmbeddingService implements EmbeddingService {
+
+        private final Function<List<String>, EmbeddingMatrix> delegate;
+
+        RecordingEmbeddingService(Function<List<String>, EmbeddingMatrix> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public EmbeddingMatrix embedMatrix(List<String> texts) {
+            calls.add(List.copyOf(texts));
+            return delegate.apply(texts);
+        }
+
+        @Override
+        public int getDimensions() {
+            return 1;
+        }
+
+        @Override
+        public String getModelName() {
+            return "lengths";
+        }
+    }
+}
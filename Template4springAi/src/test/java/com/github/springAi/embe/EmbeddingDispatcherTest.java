@@ -0,0 +1,110 @@
+package com.github.springAi.embe;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EmbeddingDispatcherTest {
+
+    @Test
+    void resultsArePlacedByIndexInInputOrder() {
+        EmbeddingDispatcher dispatcher = dispatcher(request -> {
+            List<Embedding> results = new ArrayList<>();
+            for (int i = 0; i < request.getInstructions().size(); i++) {
+                results.add(new Embedding(vectorOf(request.getInstructions().get(i)), i));
+            }
+            Collections.reverse(results);
+            return new EmbeddingResponse(results);
+        });
+
+        List<float[]> vectors = dispatcher.embed(List.of(List.of("a", "bb"), List.of("ccc")));
+
+        assertThat(vectors).extracting(v -> v[0]).containsExactly(1f, 2f, 3f);
+    }
+
+    @Test
+    void aResponseWithTooFewVectorsFailsTheBatch() {
+        EmbeddingDispatcher dispatcher = dispatcher(request ->
+                new EmbeddingResponse(List.of(new Embedding(new float[]{1f}, 0))));
+
+        assertThatThrownBy(() -> dispatcher.embed(List.of(List.of("a", "b"))))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("1 vectors for 2 texts");
+    }
+
+    @Test
+    void aDuplicateIndexFailsTheBatch() {
+        EmbeddingDispatcher dispatcher = dispatcher(request -> new EmbeddingResponse(List.of(
+                new Embedding(new float[]{1f}, 0), new Embedding(new float[]{2f}, 0))));
+
+        assertThatThrownBy(() -> dispatcher.embed(List.of(List.of("a", "b"))))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("index 0");
+    }
+
+    @Test
+    void rateLimitedCallsAreRetried() {
+        AtomicInteger calls = new AtomicInteger();
+        EmbeddingDispatcher dispatcher = dispatcher(request -> {
+            if (calls.incrementAndGet() <= 2) {
+                throw new RuntimeException("429 - Too Many Requests");
+            }
+            return new EmbeddingResponse(List.of(new Embedding(new float[]{7f}, 0)));
+        });
+
+        assertThat(dispatcher.embed(List.of(List.of("a")))).extracting(v -> v[0]).containsExactly(7f);
+        assertThat(calls).hasValue(3);
+    }
+
+    @Test
+    void clientErrorsAreNotRetried() {
+        AtomicInteger calls = new AtomicInteger();
+        EmbeddingDispatcher dispatcher = dispatcher(request -> {
+            calls.incrementAndGet();
+            throw new RuntimeException("400 - Bad Request");
+        });
+
+        assertThatThrownBy(() -> dispatcher.embed(List.of(List.of("a")))).hasMessageContaining("400");
+        assertThat(calls).hasValue(1);
+    }
+
+    private static EmbeddingDispatcher dispatcher(Function<EmbeddingRequest, EmbeddingResponse> responses) {
+        EmbeddingServiceProperties.DispatchProperties properties = new EmbeddingServiceProperties.DispatchProperties();
+        properties.setInitialBackoff(Duration.ofMillis(1));
+        properties.setMaxBackoff(Duration.ofMillis(5));
+        return new EmbeddingDispatcher(new StubEmbeddingModel(responses), null, properties);
+    }
+
+    /**
+     * A one-dimensional vector holding the text's length.
+     */
+    private static float[] vectorOf(String text) {
+        return new float[]{text.length()};
+    }
+
+    private record StubEmbeddingModel(Function<EmbeddingRequest, EmbeddingResponse> responses) implements EmbeddingModel {
+
+        @Override
+        public EmbeddingResponse call(EmbeddingRequest request) {
+            return responses.apply(request);
+        }
+
+        @Override
+        public float[] embed(Document document) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
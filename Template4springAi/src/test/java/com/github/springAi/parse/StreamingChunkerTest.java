@@ -0,0 +1,103 @@
+package com.github.springAi.parse;
+
+import com.knuddels.jtokkit.Encodings;
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.EncodingType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class StreamingChunkerTest {
+
+    private static final String[] WORDS = {"vector", "index", "query", "the", "segment", "budget", "token",
+            "retrieval", "answer", "model", "of", "a", "store", "über", "naïve", "résumé"};
+
+    private final Encoding encoding = Encodings.newLazyEncodingRegistry().getEncoding(EncodingType.CL100K_BASE);
+
+    @Test
+    void chunksStayWithinTheTokenSizeAndCoverTheText() {
+        String text = prose(new Random(1), 400);
+        List<String> chunks = new ArrayList<>();
+        StreamingChunker chunker = new StreamingChunker(encoding, 64, 50, 0, 0, true, chunks::add);
+
+        // Small appends, as a streaming parser hands over text
+        for (int i = 0; i < text.length(); i += 37) {
+            chunker.append(text.substring(i, Math.min(text.length(), i + 37)));
+        }
+        chunker.finish();
+
+        assertThat(chunks).hasSizeGreaterThan(5).hasSize(chunker.chunks());
+        // Counted with the leading space the chunk was cut with: trimmed, " retrieval" (1 token) becomes "retrieval" (3)
+        assertThat(chunks).allSatisfy(chunk -> assertThat(encoding.countTokensOrdinary(" " + chunk)).isLessThanOrEqualTo(64));
+        assertThat(normalize(String.join(" ", chunks))).isEqualTo(normalize(text));
+    }
+
+    @Test
+    void chunksAreCutAtSentenceEnds() {
+        List<String> chunks = new ArrayList<>();
+        StreamingChunker chunker = new StreamingChunker(encoding, 64, 50, 0, 0, true, chunks::add);
+
+        chunker.append(prose(new Random(2), 400));
+        chunker.finish();
+
+        assertThat(chunks.subList(0, chunks.size() - 1)).allSatisfy(chunk -> assertThat(chunk).endsWith("."));
+    }
+
+    @Test
+    void overlapRepeatsTheEndOfThePreviousChunk() {
+        List<String> chunks = new ArrayList<>();
+        StreamingChunker chunker = new StreamingChunker(encoding, 64, 0, 0, 16, true, chunks::add);
+
+        chunker.append(prose(new Random(3), 300));
+        chunker.finish();
+
+        assertThat(chunks).hasSizeGreaterThan(2);
+        for (int i = 1; i < chunks.size(); i++) {
+            String start = chunks.get(i).substring(0, Math.min(20, chunks.get(i).length()));
+            assertThat(chunks.get(i - 1)).contains(start);
+        }
+    }
+
+    @Test
+    void undecodableTextIsSkippedWithoutLosingWhatFollows() {
+        List<String> chunks = new ArrayList<>();
+        StreamingChunker chunker = new StreamingChunker(encoding, 8, 0, 0, 0, true, chunks::add);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            chunker.append("�".repeat(200));
+            chunker.append(" readable text follows.");
+            chunker.finish();
+        });
+
+        assertThat(String.join(" ", chunks)).contains("readable text follows.").doesNotContain("�");
+    }
+
+    @Test
+    void overlapMustBeSmallerThanTheChunk() {
+        assertThatThrownBy(() -> new StreamingChunker(encoding, 16, 0, 0, 16, true, chunk -> {
+        })).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String prose(Random random, int sentences) {
+        StringBuilder text = new StringBuilder();
+        for (int s = 0; s < sentences; s++) {
+            int words = 4 + random.nextInt(12);
+            for (int w = 0; w < words; w++) {
+                text.append(w == 0 ? "" : " ").append(WORDS[random.nextInt(WORDS.length)]);
+            }
+            text.append(random.nextInt(10) == 0 ? ".\n" : ". ");
+        }
+        return text.toString();
+    }
+
+    private static String normalize(String text) {
+        return text.replaceAll("\\s+", " ").trim();
+    }
+}
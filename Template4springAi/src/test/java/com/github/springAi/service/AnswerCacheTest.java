@@ -0,0 +1,75 @@
+package com.github.springAi.service;
+
+import com.github.springAi.Retriever.RetrievalResult;
+import com.github.springAi.config.RagServiceProperties;
+import com.github.springAi.domain.DocumentSegment;
+import com.github.springAi.domain.RagResponse;
+import com.github.springAi.vector.VectorStoreChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnswerCacheTest {
+
+    private final DocumentSegment segment = new DocumentSegment(UUID.randomUUID(), UUID.randomUUID(), Map.of(), "text");
+    private final RagResponse answer = new RagResponse("cached answer", List.of());
+    private final AnswerCache cache = new AnswerCache(new RagServiceProperties(),
+            new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+
+    @Test
+    void aParaphraseRetrievingTheSameSegmentsIsAnsweredFromTheCache() {
+        cache.put(retrieval(new float[]{1f, 0f}, segment), Map.of("talk_id", 7), answer, cache.epoch());
+
+        // Filters compare as strings, like the stores apply them
+        assertThat(cache.find(retrieval(new float[]{0.99f, 0.05f}, segment), Map.of("talk_id", "7"))).contains(answer);
+    }
+
+    @Test
+    void aDissimilarQuestionDifferentSegmentsOrFiltersMiss() {
+        cache.put(retrieval(new float[]{1f, 0f}, segment), Map.of(), answer, cache.epoch());
+        DocumentSegment other = new DocumentSegment(UUID.randomUUID(), UUID.randomUUID(), Map.of(), "other");
+
+        assertThat(cache.find(retrieval(new float[]{0.7f, 0.7f}, segment), Map.of())).isEmpty();
+        assertThat(cache.find(retrieval(new float[]{1f, 0f}, other), Map.of())).isEmpty();
+        assertThat(cache.find(retrieval(new float[]{1f, 0f}, segment), Map.of("talk_id", "7"))).isEmpty();
+    }
+
+    @Test
+    void aStoreChangeTouchingACitedSegmentDropsTheAnswer() {
+        cache.put(retrieval(new float[]{1f, 0f}, segment), Map.of(), answer, cache.epoch());
+
+        cache.onVectorStoreChanged(VectorStoreChangedEvent.removed(Set.of(segment.getId())));
+
+        assertThat(cache.find(retrieval(new float[]{1f, 0f}, segment), Map.of())).isEmpty();
+    }
+
+    @Test
+    void anAnswerGeneratedBeforeAStoreChangeIsNotStored() {
+        long epoch = cache.epoch();
+        cache.onVectorStoreChanged(VectorStoreChangedEvent.removed(Set.of(UUID.randomUUID())));
+
+        cache.put(retrieval(new float[]{1f, 0f}, segment), Map.of(), answer, epoch);
+
+        assertThat(cache.find(retrieval(new float[]{1f, 0f}, segment), Map.of())).isEmpty();
+    }
+
+    @Test
+    void nothingIsCachedWithoutAVectorOrSegments() {
+        cache.put(retrieval(new float[0], segment), Map.of(), answer, cache.epoch());
+        cache.put(retrieval(new float[]{1f, 0f}), Map.of(), answer, cache.epoch());
+
+        assertThat(cache.find(retrieval(new float[]{1f, 0f}, segment), Map.of())).isEmpty();
+        assertThat(cache.find(retrieval(new float[]{1f, 0f}), Map.of())).isEmpty();
+    }
+
+    private static RetrievalResult retrieval(float[] questionEmbedding, DocumentSegment... segments) {
+        return new RetrievalResult(questionEmbedding, List.of(segments));
+    }
+}
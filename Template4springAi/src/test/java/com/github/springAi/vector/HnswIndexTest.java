@@ -0,0 +1,110 @@
+package com.github.springAi.vector;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HnswIndexTest {
+
+    private static final int DIMENSIONS = 32;
+    private static final int CORPUS = 2_000;
+    private static final int QUERIES = 50;
+    private static final int K = 10;
+
+    private final SimilarityKernel kernel = SimilarityKernels.create("scalar");
+
+    @Test
+    void recallAgainstBruteForceIsHigh() {
+        Random random = new Random(42);
+        List<float[]> corpus = randomVectors(random, CORPUS);
+        HnswIndex<Integer> index = new HnswIndex<>(16, 200, kernel);
+        for (int i = 0; i < corpus.size(); i++) {
+            index.add(i, corpus.get(i));
+        }
+
+        int found = 0;
+        for (float[] query : randomVectors(random, QUERIES)) {
+            Set<Integer> expected = bruteForce(corpus, query, K);
+            for (HnswIndex.Match<Integer> match : index.search(query, K, 100, null)) {
+                if (expected.contains(match.item())) {
+                    found++;
+                }
+            }
+        }
+        assertThat((double) found / (QUERIES * K)).isGreaterThanOrEqualTo(0.9);
+    }
+
+    @Test
+    void searchReturnsBestFirstAndHonoursTheFilter() {
+        Random random = new Random(7);
+        HnswIndex<Integer> index = new HnswIndex<>(8, 64, kernel);
+        for (float[] vector : randomVectors(random, 500)) {
+            index.add(index.size(), vector);
+        }
+
+        List<HnswIndex.Match<Integer>> matches = index.search(randomVectors(random, 1).get(0), 20, 64, item -> item % 2 == 0);
+
+        assertThat(matches).hasSize(20).allSatisfy(match -> assertThat(match.item() % 2).isZero());
+        for (int i = 1; i < matches.size(); i++) {
+            assertThat(matches.get(i).score()).isLessThanOrEqualTo(matches.get(i - 1).score());
+        }
+    }
+
+    @Test
+    void removedNodesAreNotReturned() {
+        Random random = new Random(11);
+        HnswIndex<Integer> index = new HnswIndex<>(8, 64, kernel);
+        List<HnswIndex.Node<Integer>> nodes = new ArrayList<>();
+        for (float[] vector : randomVectors(random, 200)) {
+            nodes.add(index.add(nodes.size(), vector));
+        }
+        HnswIndex.Node<Integer> removed = nodes.get(17);
+
+        index.remove(removed);
+        index.remove(removed);
+
+        assertThat(index.size()).isEqualTo(199);
+        assertThat(index.tombstones()).isEqualTo(1);
+        assertThat(index.search(removed.vector(), 5, 64, null))
+                .extracting(HnswIndex.Match::item)
+                .doesNotContain(17);
+    }
+
+    @Test
+    void emptyIndexFindsNothing() {
+        HnswIndex<Integer> index = new HnswIndex<>(8, 64, kernel);
+
+        assertThat(index.search(new float[DIMENSIONS], K, 64, null)).isEmpty();
+    }
+
+    private Set<Integer> bruteForce(List<float[]> corpus, float[] query, int k) {
+        float[] normalized = SimilarityKernels.normalize(query);
+        TopKHeap best = new TopKHeap(k);
+        for (int i = 0; i < corpus.size(); i++) {
+            best.offer(kernel.dot(normalized, SimilarityKernels.normalize(corpus.get(i))), i);
+        }
+        Set<Integer> ids = new HashSet<>();
+        for (int id : best.drainIds()) {
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    static List<float[]> randomVectors(Random random, int count) {
+        List<float[]> vectors = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            float[] vector = new float[DIMENSIONS];
+            for (int d = 0; d < DIMENSIONS; d++) {
+                vector[d] = (float) random.nextGaussian();
+            }
+            vectors.add(vector);
+        }
+        return vectors;
+    }
+}
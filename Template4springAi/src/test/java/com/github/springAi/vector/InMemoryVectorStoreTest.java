@@ -0,0 +1,105 @@
+package com.github.springAi.vector;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.springAi.domain.DocumentSegment;
+import com.github.springAi.embe.EmbeddingServiceProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class InMemoryVectorStoreTest {
+
+    private static final int DIMENSIONS = 32;
+    private static final int CORPUS = 1_000;
+    private static final int QUERIES = 30;
+    private static final int K = 10;
+
+    private final SimilarityKernel kernel = SimilarityKernels.create("scalar");
+
+    @Test
+    void int8FirstPassThenExactRerankFindsTheExactNeighbours() {
+        assertRecall("int8", 4, 0.9);
+    }
+
+    @Test
+    void binaryFirstPassThenExactRerankFindsMostExactNeighbours() {
+        assertRecall("binary", 20, 0.8);
+    }
+
+    @Test
+    void filtersSelectOnlyMatchingSegments() {
+        InMemoryVectorStore store = store("none", 1);
+        Random random = new Random(13);
+        List<DocumentSegment> segments = new ArrayList<>();
+        List<float[]> vectors = HnswIndexTest.randomVectors(random, 100);
+        for (int i = 0; i < vectors.size(); i++) {
+            segments.add(new DocumentSegment(UUID.randomUUID(), UUID.randomUUID(),
+                    Map.of("talk_id", i % 3 == 0 ? "a" : "b"), "segment " + i));
+        }
+        store.upsertBatch(segments, vectors);
+
+        List<VectorMatch> matches = store.searchMatches(vectors.get(0), 50, Map.of("talk_id", "a"));
+
+        assertThat(matches).hasSize(34)
+                .allSatisfy(match -> assertThat(match.segment().getMetadata()).containsEntry("talk_id", "a"));
+        assertThat(matches.get(0).segment()).isEqualTo(segments.get(0));
+    }
+
+    /**
+     * The quantised store must return exact cosine scores (re-ranked at full precision), best first,
+     * and mostly the same segments as an exact scan.
+     */
+    private void assertRecall(String quantization, int rerankMultiplier, double minimumRecall) {
+        Random random = new Random(42);
+        List<float[]> vectors = HnswIndexTest.randomVectors(random, CORPUS);
+        List<DocumentSegment> segments = new ArrayList<>(CORPUS);
+        for (int i = 0; i < CORPUS; i++) {
+            segments.add(new DocumentSegment(UUID.randomUUID(), UUID.randomUUID(), Map.of(), "segment " + i));
+        }
+        InMemoryVectorStore exact = store("none", 1);
+        InMemoryVectorStore quantized = store(quantization, rerankMultiplier);
+        exact.upsertBatch(segments, vectors);
+        quantized.upsertBatch(segments, vectors);
+
+        int found = 0;
+        for (float[] query : HnswIndexTest.randomVectors(random, QUERIES)) {
+            Set<UUID> expected = new HashSet<>();
+            exact.searchMatches(query, K, null).forEach(match -> expected.add(match.segment().getId()));
+            List<VectorMatch> matches = quantized.searchMatches(query, K, null);
+
+            assertThat(matches).hasSize(K);
+            float[] normalized = SimilarityKernels.normalize(query);
+            for (int i = 0; i < matches.size(); i++) {
+                VectorMatch match = matches.get(i);
+                assertThat(match.score()).isCloseTo(kernel.dot(normalized, match.embedding()), within(1e-5f));
+                if (i > 0) {
+                    assertThat(match.score()).isLessThanOrEqualTo(matches.get(i - 1).score());
+                }
+                if (expected.contains(match.segment().getId())) {
+                    found++;
+                }
+            }
+        }
+        assertThat((double) found / (QUERIES * K)).isGreaterThanOrEqualTo(minimumRecall);
+    }
+
+    private static InMemoryVectorStore store(String quantization, int rerankMultiplier) {
+        VectorStoreProperties properties = new VectorStoreProperties();
+        properties.setKernel("scalar");
+        properties.setQuantization(quantization);
+        properties.setRerankMultiplier(rerankMultiplier);
+        EmbeddingServiceProperties embeddingProperties = new EmbeddingServiceProperties();
+        embeddingProperties.setDimensions(DIMENSIONS);
+        return new InMemoryVectorStore(properties, embeddingProperties, new ObjectMapper(), event -> {
+        });
+    }
+}
@@ -0,0 +1,62 @@
+package com.github.springAi.vector;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MetadataBitmapIndexTest {
+
+    private final MetadataBitmapIndex index = new MetadataBitmapIndex(List.of("chunk_sha256"));
+
+    @Test
+    void selectsSlotsMatchingEveryKeyAndAnyValueOfACollection() {
+        index.add(0, Map.of("user_id", "u1", "talk_id", "t1"));
+        index.add(1, Map.of("user_id", "u1", "talk_id", "t2"));
+        index.add(2, Map.of("user_id", "u2", "talk_id", "t1"));
+        index.add(3, Map.of("user_id", "u1", "talk_id", 3));
+
+        assertThat(index.select(Map.of("user_id", "u1")).toArray()).containsExactly(0, 1, 3);
+        assertThat(index.select(Map.of("user_id", "u1", "talk_id", "t1")).toArray()).containsExactly(0);
+        assertThat(index.select(Map.of("talk_id", List.of("t2", "3"))).toArray()).containsExactly(1, 3);
+        assertThat(index.select(Map.of("user_id", "u3")).isEmpty()).isTrue();
+    }
+
+    @Test
+    void noIndexedFilterSelectsNothingSoTheCallerScansEverything() {
+        index.add(0, Map.of("chunk_sha256", "abc"));
+
+        assertThat(index.select(null)).isNull();
+        assertThat(index.select(Map.of())).isNull();
+        assertThat(index.select(Map.of("chunk_sha256", "abc"))).isNull();
+    }
+
+    @Test
+    void unindexedKeysDoNotNarrowTheSelection() {
+        index.add(0, Map.of("user_id", "u1", "chunk_sha256", "abc"));
+        index.add(1, Map.of("user_id", "u1", "chunk_sha256", "def"));
+
+        assertThat(index.select(Map.of("user_id", "u1", "chunk_sha256", "abc")).toArray()).containsExactly(0, 1);
+    }
+
+    @Test
+    void removedSlotsAreNoLongerSelected() {
+        index.add(0, Map.of("user_id", "u1"));
+        index.add(1, Map.of("user_id", "u1"));
+
+        index.remove(0, Map.of("user_id", "u1"));
+
+        assertThat(index.select(Map.of("user_id", "u1")).toArray()).containsExactly(1);
+    }
+
+    @Test
+    void selectionIsACopy() {
+        index.add(0, Map.of("user_id", "u1"));
+
+        index.select(Map.of("user_id", "u1")).add(5);
+
+        assertThat(index.select(Map.of("user_id", "u1")).toArray()).containsExactly(0);
+    }
+}
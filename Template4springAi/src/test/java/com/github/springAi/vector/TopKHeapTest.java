@@ -0,0 +1,82 @@
+package com.github.springAi.vector;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TopKHeapTest {
+
+    @Test
+    void keepsTheHighestScoresBestFirst() {
+        float[] scores = new float[1_000];
+        Random random = new Random(3);
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = random.nextFloat();
+        }
+        TopKHeap heap = new TopKHeap(10);
+        for (int i = 0; i < scores.length; i++) {
+            heap.offer(scores[i], i);
+        }
+
+        int[] ids = new int[10];
+        float[] kept = new float[10];
+        assertThat(heap.drain(ids, kept)).isEqualTo(10);
+
+        int[] expected = IntStream.range(0, scores.length).boxed()
+                .sorted(Comparator.comparingDouble((Integer i) -> scores[i]).reversed())
+                .limit(10)
+                .mapToInt(Integer::intValue)
+                .toArray();
+        assertThat(ids).containsExactly(expected);
+        for (int i = 0; i < ids.length; i++) {
+            assertThat(kept[i]).isEqualTo(scores[ids[i]]);
+        }
+        assertThat(heap.size()).isZero();
+    }
+
+    @Test
+    void fillsUpBeforeComparingAgainstTheMinimum() {
+        TopKHeap heap = new TopKHeap(3);
+        heap.offer(0.5f, 1);
+        heap.offer(0.1f, 2);
+        assertThat(heap.isFull()).isFalse();
+
+        heap.offer(0.3f, 3);
+        assertThat(heap.isFull()).isTrue();
+        assertThat(heap.minScore()).isEqualTo(0.1f);
+
+        heap.offer(0.05f, 4); // below the minimum: ignored
+        heap.offer(0.9f, 5);
+        assertThat(heap.drainIds()).containsExactly(5, 1, 3);
+    }
+
+    @Test
+    void mergedPartitionsMatchOneHeap() {
+        TopKHeap left = new TopKHeap(4);
+        TopKHeap right = new TopKHeap(4);
+        TopKHeap whole = new TopKHeap(4);
+        Random random = new Random(5);
+        for (int i = 0; i < 100; i++) {
+            float score = random.nextFloat();
+            (i % 2 == 0 ? left : right).offer(score, i);
+            whole.offer(score, i);
+        }
+
+        left.addAll(right);
+
+        assertThat(left.drainIds()).containsExactly(whole.drainIds());
+    }
+
+    @Test
+    void zeroCapacityKeepsNothing() {
+        TopKHeap heap = new TopKHeap(0);
+        heap.offer(1f, 1);
+
+        assertThat(heap.size()).isZero();
+        assertThat(heap.drainIds()).isEmpty();
+    }
+}
@@ -0,0 +1,43 @@
+package com.github.springAi.bench;
+
+import com.github.springAi.parse.ContentHasher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SHA-256 as the pipeline computes it: once per chunk (about 3 KB) and once per parsed document.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContentHasherBenchmark {
+
+    @Param({"3200", "1048576"})
+    int chars;
+
+    private String content;
+
+    @Setup
+    public void setUp() {
+        content = SampleText.generate(1, chars);
+    }
+
+    @Benchmark
+    public String computeHash() {
+        return ContentHasher.computeHash(content);
+    }
+}
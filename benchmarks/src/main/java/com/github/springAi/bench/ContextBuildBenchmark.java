@@ -0,0 +1,70 @@
+package com.github.springAi.bench;
+
+import com.github.springAi.config.RagServiceProperties;
+import com.github.springAi.domain.DocumentSegment;
+import com.github.springAi.service.ContextPacker;
+import com.github.springAi.service.TokenCounter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ContextPacker} packing retrieved chunks into the token budget, with token counts read from the
+ * segments' token_count metadata (as ingested) and counted afresh (older segments).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContextBuildBenchmark {
+
+    @Param({"4", "16", "64"})
+    int segments;
+
+    @Param({"true", "false"})
+    boolean cachedCounts;
+
+    private ContextPacker contextPacker;
+    private List<DocumentSegment> retrieved;
+
+    @Setup
+    public void setUp() {
+        RagServiceProperties properties = new RagServiceProperties();
+        TokenCounter tokenCounter = new TokenCounter(properties);
+        contextPacker = new ContextPacker(properties, tokenCounter);
+
+        retrieved = new ArrayList<>(segments);
+        for (int i = 0; i < segments; i++) {
+            // About the size of an 800-token chunk
+            String content = SampleText.generate(100 + i, 3200);
+            Map<String, Object> metadata = new HashMap<>();
+            metadata.put("file_name", "doc-" + i + ".html");
+            if (cachedCounts) {
+                metadata.put(TokenCounter.TOKEN_COUNT, tokenCounter.count(content));
+            }
+            retrieved.add(new DocumentSegment(UUID.randomUUID(), UUID.randomUUID(), metadata, content));
+        }
+    }
+
+    @Benchmark
+    public String buildContext() {
+        return contextPacker.pack(retrieved);
+    }
+}
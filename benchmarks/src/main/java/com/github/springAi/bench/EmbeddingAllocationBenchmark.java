@@ -0,0 +1,78 @@
+package com.github.springAi.bench;
+
+import com.github.springAi.embe.EmbeddingMatrix;
+import com.github.springAi.embe.EmbeddingServiceProperties;
+import com.github.springAi.embe.LocalMockEmbeddingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Embedding a batch with the mock provider and turning it into the {@code float[]} rows the stores take:
+ * through the boxed {@code List<List<Double>>} API (the old path) versus {@link EmbeddingMatrix}.
+ * Run with {@code -prof gc} to compare gc.alloc.rate.norm (bytes allocated per operation).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmbeddingAllocationBenchmark {
+
+    @Param({"1", "64"})
+    int batchSize;
+
+    @Param({"1536"})
+    int dimensions;
+
+    private LocalMockEmbeddingService service;
+    private List<String> texts;
+
+    @Setup
+    public void setUp() {
+        EmbeddingServiceProperties properties = new EmbeddingServiceProperties();
+        properties.setDimensions(dimensions);
+        service = new LocalMockEmbeddingService(properties);
+        texts = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            texts.add("chunk number " + i + " of the allocation benchmark");
+        }
+    }
+
+    @Benchmark
+    public List<float[]> boxed() {
+        List<List<Double>> vectors = service.embed(texts);
+        List<float[]> rows = new ArrayList<>(vectors.size());
+        for (List<Double> vector : vectors) {
+            float[] row = new float[vector.size()];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = vector.get(i).floatValue();
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    @Benchmark
+    public List<float[]> matrix() {
+        return service.embedMatrix(texts).toRows();
+    }
+
+    @Benchmark
+    public EmbeddingMatrix matrixOnly() {
+        return service.embedMatrix(texts);
+    }
+}
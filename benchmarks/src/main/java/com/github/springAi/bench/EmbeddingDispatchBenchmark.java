@@ -0,0 +1,63 @@
+package com.github.springAi.bench;
+
+import com.github.springAi.embe.EmbeddingDispatcher;
+import com.github.springAi.embe.EmbeddingServiceProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wall time to embed 16 batches against a provider with 50 ms latency, by dispatcher concurrency.
+ * maxConcurrency=1 is the old sequential behaviour.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmbeddingDispatchBenchmark {
+
+    @Param({"1", "4", "16"})
+    int maxConcurrency;
+
+    private EmbeddingDispatcher dispatcher;
+    private List<List<String>> batches;
+
+    @Setup
+    public void setUp() {
+        EmbeddingServiceProperties.DispatchProperties properties = new EmbeddingServiceProperties.DispatchProperties();
+        properties.setMaxConcurrency(maxConcurrency);
+        properties.setRequestsPerMinute(0);
+        properties.setTokensPerMinute(0);
+        properties.setInitialBackoff(Duration.ofMillis(10));
+        dispatcher = new EmbeddingDispatcher(new SimulatedEmbeddingModel(50, 0, 256), null, properties);
+
+        batches = new ArrayList<>();
+        for (int b = 0; b < 16; b++) {
+            List<String> batch = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                batch.add("chunk " + b + "-" + i);
+            }
+            batches.add(batch);
+        }
+    }
+
+    @Benchmark
+    public int dispatch() {
+        return dispatcher.embed(batches).size();
+    }
+}
@@ -0,0 +1,81 @@
+package com.github.springAi.bench;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Segment metadata to and from JSON, as {@code PostgresVectorStore} does per row on write and read:
+ * through the shared ObjectMapper (as the store does today) and through pre-built reader/writer.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetadataJsonBenchmark {
+
+    private ObjectMapper mapper;
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private Map<String, Object> metadata;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        mapper = new ObjectMapper();
+        writer = mapper.writerFor(Map.class);
+        reader = mapper.readerFor(Map.class);
+        // What the ingestion pipeline attaches to every chunk
+        metadata = new HashMap<>();
+        metadata.put("title", "Configuring pgvector indexes for approximate search");
+        metadata.put("source", "pgvector-indexes.html");
+        metadata.put("type", "html");
+        metadata.put("sha256", "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08");
+        metadata.put("file_name", "pgvector-indexes.html");
+        metadata.put("source_path", "/data/docs/pgvector/pgvector-indexes.html");
+        metadata.put("chunk_index", 17);
+        metadata.put("chunk_sha256", "2c26b46b68ffc68ff99b453c1d30413413422d706483bfa0f98a5e886266e7ae");
+        metadata.put("token_count", 781);
+        json = mapper.writeValueAsBytes(metadata);
+    }
+
+    @Benchmark
+    public String writeWithMapper() throws JsonProcessingException {
+        return mapper.writeValueAsString(metadata);
+    }
+
+    @Benchmark
+    public String writeWithWriter() throws JsonProcessingException {
+        return writer.writeValueAsString(metadata);
+    }
+
+    @Benchmark
+    public Map<?, ?> readWithMapper() throws IOException {
+        // The store reads the column as a String and re-encodes it first
+        return mapper.readValue(new String(json, StandardCharsets.UTF_8).getBytes(), Map.class);
+    }
+
+    @Benchmark
+    public Map<?, ?> readWithReader() throws IOException {
+        return reader.readValue(json);
+    }
+}
@@ -0,0 +1,116 @@
+package com.github.springAi.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.springAi.domain.DocumentSegment;
+import com.github.springAi.embe.EmbeddingServiceProperties;
+import com.github.springAi.vector.PostgresVectorStore;
+import com.github.springAi.vector.VectorStoreProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second into vector_segments: batched INSERTs against binary COPY through the staging table.
+ * Needs a database with sql/new.sql applied, passed in with
+ * {@code -Dbench.jdbc.url=... -Dbench.jdbc.user=... -Dbench.jdbc.password=...}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PostgresBulkLoadBenchmark {
+
+    @Param({"insert", "copy"})
+    String path;
+
+    @Param({"1000", "10000"})
+    int batchSize;
+
+    @Param({"1536"})
+    int dimensions;
+
+    private SingleConnectionDataSource dataSource;
+    private NamedParameterJdbcTemplate jdbc;
+    private TransactionTemplate transaction;
+    private PostgresVectorStore store;
+    private UUID documentId;
+    private final Random random = new Random(11);
+
+    private List<DocumentSegment> segments;
+    private List<float[]> embeddings;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkParams params) {
+        String url = System.getProperty("bench.jdbc.url");
+        if (url == null) {
+            throw new IllegalStateException("Set -Dbench.jdbc.url (and bench.jdbc.user / bench.jdbc.password)");
+        }
+        dataSource = new SingleConnectionDataSource(url,
+                System.getProperty("bench.jdbc.user", "postgres"),
+                System.getProperty("bench.jdbc.password", ""), true);
+        jdbc = new NamedParameterJdbcTemplate(dataSource);
+        transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        VectorStoreProperties properties = new VectorStoreProperties();
+        properties.getPostgres().setCopyThreshold("copy".equals(path) ? 0 : Integer.MAX_VALUE);
+        EmbeddingServiceProperties embeddingProperties = new EmbeddingServiceProperties();
+        embeddingProperties.setDimensions(dimensions);
+        store = new PostgresVectorStore(jdbc, new ObjectMapper(), properties, embeddingProperties, event -> { });
+        store.init();
+
+        documentId = UUID.randomUUID();
+        jdbc.update("INSERT INTO documents (id, source_path, sha256) VALUES (:id, :path, :sha)",
+                new MapSqlParameterSource()
+                        .addValue("id", documentId)
+                        .addValue("path", "jmh/" + params.id())
+                        .addValue("sha", documentId.toString()));
+    }
+
+    @Setup(Level.Invocation)
+    public void nextBatch() {
+        segments = new ArrayList<>(batchSize);
+        embeddings = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            segments.add(new DocumentSegment(UUID.randomUUID(), documentId,
+                    Map.of("chunk_index", i, "source", "jmh"), "benchmark chunk " + i));
+            embeddings.add(SimilarityKernelBenchmark.randomUnitVector(random, dimensions));
+        }
+    }
+
+    @Benchmark
+    public void upsertBatch() {
+        transaction.executeWithoutResult(status -> store.upsertBatch(segments, embeddings));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        // Cascades to every segment the trial inserted
+        jdbc.update("DELETE FROM documents WHERE id = :id", new MapSqlParameterSource("id", documentId));
+        dataSource.destroy();
+    }
+}
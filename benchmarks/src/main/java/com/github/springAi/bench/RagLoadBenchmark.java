@@ -0,0 +1,189 @@
+package com.github.springAi.bench;
+
+import com.github.springAi.Retriever.Bm25Index;
+import com.github.springAi.Retriever.Reranker;
+import com.github.springAi.Retriever.VectorStoreRetriever;
+import com.github.springAi.config.RagServiceProperties;
+import com.github.springAi.domain.DocumentSegment;
+import com.github.springAi.domain.RagRequest;
+import com.github.springAi.embe.EmbeddingMatrix;
+import com.github.springAi.embe.EmbeddingService;
+import com.github.springAi.embe.EmbeddingServiceProperties;
+import com.github.springAi.service.AnswerCache;
+import com.github.springAi.service.ContextPacker;
+import com.github.springAi.service.DownstreamLimiters;
+import com.github.springAi.service.RAGService;
+import com.github.springAi.service.StageObservations;
+import com.github.springAi.service.TokenCounter;
+import com.github.springAi.vector.VectorMatch;
+import com.github.springAi.vector.VectorStoreProperties;
+import com.github.springAi.vector.VectorStoreRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Time for the RAG query path to serve a burst of concurrent requests when every downstream is remote:
+ * 20 ms embedding, 5 ms vector search, 200 ms + 10 ms/token chat generation.
+ * <p>
+ * {@code platform} runs the requests on 200 platform threads (Tomcat's default pool), {@code virtual}
+ * on one virtual thread each; both go through the same per-downstream limiters, so the difference is
+ * only in how many requests can be waiting on I/O at once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class RagLoadBenchmark {
+
+    @Param({"platform", "virtual"})
+    String threads;
+
+    @Param({"1000"})
+    int concurrentRequests;
+
+    private RAGService ragService;
+    private ExecutorService executor;
+
+    @Setup
+    public void setUp() {
+        RagServiceProperties properties = new RagServiceProperties();
+        RagServiceProperties.LimitsProperties limits = properties.getLimits();
+        limits.setEmbedding(64);
+        limits.setDatabase(32);
+        limits.setLlm(512);
+        limits.setAcquireTimeout(Duration.ofMinutes(1));
+        StaticListableBeanFactory noBeans = new StaticListableBeanFactory();
+        DownstreamLimiters limiters = new DownstreamLimiters(properties, noBeans.getBeanProvider(MeterRegistry.class));
+        StageObservations observations = new StageObservations(properties, new EmbeddingServiceProperties(),
+                new VectorStoreProperties(), noBeans.getBeanProvider(ObservationRegistry.class),
+                noBeans.getBeanProvider(MeterRegistry.class));
+
+        VectorStoreRetriever retriever = new VectorStoreRetriever(new SimulatedVectorStore(5),
+                new SimulatedEmbeddingService(new SimulatedEmbeddingModel(20, 0, 256)), limiters, properties,
+                noBeans.getBeanProvider(Bm25Index.class), noBeans.getBeanProvider(Reranker.class), observations);
+        ObjectProvider<AnswerCache> noCache = noBeans.getBeanProvider(AnswerCache.class);
+        ragService = new RAGService(new SimulatedChatModel(Duration.ofMillis(200), Duration.ofMillis(10), 50),
+                retriever, noCache, limiters, new ContextPacker(properties, new TokenCounter(properties)), observations);
+        Field prompt = ReflectionUtils.findField(RAGService.class, "ragPromptResource");
+        ReflectionUtils.makeAccessible(prompt);
+        ReflectionUtils.setField(prompt, ragService, new ClassPathResource("prompts/rag-prompt.st"));
+    }
+
+    @Setup(Level.Iteration)
+    public void startExecutor() {
+        executor = "virtual".equals(threads)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(200);
+    }
+
+    @TearDown(Level.Iteration)
+    public void stopExecutor() {
+        executor.close();
+    }
+
+    @Benchmark
+    public int burst() throws Exception {
+        List<Future<?>> futures = new ArrayList<>(concurrentRequests);
+        for (int i = 0; i < concurrentRequests; i++) {
+            RagRequest request = new RagRequest();
+            request.setQuestion("question " + i);
+            futures.add(executor.submit(() -> ragService.ask(request)));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        return futures.size();
+    }
+
+    private record SimulatedEmbeddingService(SimulatedEmbeddingModel model) implements EmbeddingService {
+
+        @Override
+        public EmbeddingMatrix embedMatrix(List<String> texts) {
+            List<float[]> vectors = new ArrayList<>(texts.size());
+            model.call(new EmbeddingRequest(texts, null)).getResults().forEach(e -> vectors.add(e.getOutput()));
+            return EmbeddingMatrix.ofRows(vectors);
+        }
+
+        @Override
+        public int getDimensions() {
+            return 256;
+        }
+
+        @Override
+        public String getModelName() {
+            return "simulated";
+        }
+    }
+
+    private record SimulatedVectorStore(long latencyMillis) implements VectorStoreRepository {
+
+        @Override
+        public List<VectorMatch> searchMatches(float[] queryEmbedding, int topK, Map<String, Object> filters) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            List<VectorMatch> matches = new ArrayList<>(topK);
+            for (int i = 0; i < topK; i++) {
+                matches.add(new VectorMatch(new DocumentSegment(UUID.randomUUID(), UUID.randomUUID(),
+                        Map.of("file_name", "doc-" + i + ".html"), "Retrieved passage " + i + " for the question."),
+                        1f - i * 0.01f, queryEmbedding));
+            }
+            return matches;
+        }
+
+        @Override
+        public void upsertBatch(List<DocumentSegment> segments, List<float[]> embeddings) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deleteByTalkId(UUID talkId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deleteByIds(Collection<UUID> ids) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void forEachSegment(Consumer<DocumentSegment> action) {
+        }
+    }
+}
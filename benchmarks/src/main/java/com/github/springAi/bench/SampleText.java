@@ -0,0 +1,34 @@
+package com.github.springAi.bench;
+
+import java.util.Random;
+
+/**
+ * Deterministic English-like prose for the text benchmarks: sentences of common words with
+ * punctuation and the occasional paragraph break, so tokenisers and splitters see realistic input.
+ */
+final class SampleText {
+
+    private static final String[] WORDS = ("the of and to in is that for it as with was on be by this are from "
+            + "at or an which have not they their has more one can all been vector search embedding index "
+            + "document segment query database latency throughput memory cache cluster replica shard token "
+            + "model retrieval context answer source metadata filter ranking score postgres pgvector").split(" ");
+
+    private SampleText() {
+    }
+
+    static String generate(long seed, int chars) {
+        Random random = new Random(seed);
+        StringBuilder sb = new StringBuilder(chars + 64);
+        while (sb.length() < chars) {
+            int words = 6 + random.nextInt(18);
+            for (int i = 0; i < words; i++) {
+                String word = WORDS[random.nextInt(WORDS.length)];
+                sb.append(i == 0 ? Character.toUpperCase(word.charAt(0)) + word.substring(1) : word);
+                sb.append(i == words - 1 ? "" : " ");
+            }
+            sb.append(random.nextInt(12) == 0 ? ".\n\n" : ". ");
+        }
+        sb.setLength(chars);
+        return sb.toString();
+    }
+}
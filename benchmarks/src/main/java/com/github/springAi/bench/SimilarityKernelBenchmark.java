@@ -0,0 +1,78 @@
+package com.github.springAi.bench;
+
+import com.github.springAi.vector.ScalarSimilarityKernel;
+import com.github.springAi.vector.SimilarityKernel;
+import com.github.springAi.vector.SimilarityKernels;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scalar vs Vector API dot product on pre-normalised vectors, alongside the
+ * original two-norm cosine loop the in-memory store used before.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class SimilarityKernelBenchmark {
+
+    @Param({"384", "768", "1536", "3072"})
+    int dimensions;
+
+    private float[] a;
+    private float[] b;
+    private SimilarityKernel scalar;
+    private SimilarityKernel vectorApi;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(7);
+        a = randomUnitVector(random, dimensions);
+        b = randomUnitVector(random, dimensions);
+        scalar = new ScalarSimilarityKernel();
+        vectorApi = SimilarityKernels.create("vector-api");
+    }
+
+    @Benchmark
+    public double legacyCosine() {
+        double dot = 0.0, na = 0.0, nb = 0.0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            na += a[i] * a[i];
+            nb += b[i] * b[i];
+        }
+        return (na == 0 || nb == 0) ? 0.0 : dot / (Math.sqrt(na) * Math.sqrt(nb));
+    }
+
+    @Benchmark
+    public float scalarDot() {
+        return scalar.dot(a, b);
+    }
+
+    @Benchmark
+    public float vectorApiDot() {
+        return vectorApi.dot(a, b);
+    }
+
+    static float[] randomUnitVector(Random random, int dimensions) {
+        float[] v = new float[dimensions];
+        for (int i = 0; i < dimensions; i++) {
+            v[i] = (float) random.nextGaussian();
+        }
+        return SimilarityKernels.normalize(v);
+    }
+}
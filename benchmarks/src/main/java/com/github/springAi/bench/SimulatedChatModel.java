@@ -0,0 +1,54 @@
+package com.github.springAi.bench;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Stand-in for a remote chat model: a fixed time to first token, then one token per interval.
+ * {@link #call} blocks for the whole generation, {@link #stream} emits tokens as they are "generated".
+ */
+public class SimulatedChatModel implements ChatModel {
+
+    private final Duration firstTokenLatency;
+    private final Duration interTokenLatency;
+    private final List<String> tokens;
+
+    public SimulatedChatModel(Duration firstTokenLatency, Duration interTokenLatency, int answerTokens) {
+        this.firstTokenLatency = firstTokenLatency;
+        this.interTokenLatency = interTokenLatency;
+        this.tokens = IntStream.range(0, answerTokens).mapToObj(i -> "tok" + i + " ").toList();
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(firstTokenLatency.toNanos() + interTokenLatency.toNanos() * (tokens.size() - 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        return response(String.join("", tokens));
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        return Flux.fromIterable(tokens)
+                .delayElements(interTokenLatency)
+                .delaySubscription(firstTokenLatency.minus(interTokenLatency).isNegative()
+                        ? Duration.ZERO : firstTokenLatency.minus(interTokenLatency))
+                .map(SimulatedChatModel::response);
+    }
+
+    private static ChatResponse response(String text) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.springAi.bench;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.retry.NonTransientAiException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stand-in for a remote embedding provider: each call sleeps for a fixed latency, and calls beyond
+ * a requests-per-minute window are rejected the way Spring AI reports an OpenAI 429.
+ */
+public class SimulatedEmbeddingModel implements EmbeddingModel {
+
+    private final long latencyMillis;
+    private final int requestsPerMinute;
+    private final int dimensions;
+    private final Deque<Long> window = new ArrayDeque<>();
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * @param requestsPerMinute 0 for no limit.
+     */
+    public SimulatedEmbeddingModel(long latencyMillis, int requestsPerMinute, int dimensions) {
+        this.latencyMillis = latencyMillis;
+        this.requestsPerMinute = requestsPerMinute;
+        this.dimensions = dimensions;
+    }
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        calls.incrementAndGet();
+        if (!admit()) {
+            rejected.incrementAndGet();
+            throw new NonTransientAiException("429 - {\"error\":{\"message\":\"Rate limit reached\"}}");
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        List<Embedding> embeddings = new ArrayList<>(request.getInstructions().size());
+        for (int i = 0; i < request.getInstructions().size(); i++) {
+            float[] vector = new float[dimensions];
+            vector[request.getInstructions().get(i).hashCode() & (dimensions - 1)] = 1f;
+            embeddings.add(new Embedding(vector, i));
+        }
+        return new EmbeddingResponse(embeddings);
+    }
+
+    @Override
+    public float[] embed(Document document) {
+        return call(new EmbeddingRequest(List.of(document.getContent()), null)).getResult().getOutput();
+    }
+
+    public long calls() {
+        return calls.get();
+    }
+
+    public long rejected() {
+        return rejected.get();
+    }
+
+    private synchronized boolean admit() {
+        if (requestsPerMinute <= 0) {
+            return true;
+        }
+        long now = System.nanoTime();
+        while (!window.isEmpty() && now - window.peekFirst() > TimeUnit.MINUTES.toNanos(1)) {
+            window.pollFirst();
+        }
+        if (window.size() >= requestsPerMinute) {
+            return false;
+        }
+        window.addLast(now);
+        return true;
+    }
+}
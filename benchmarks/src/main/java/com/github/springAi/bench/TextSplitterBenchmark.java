@@ -0,0 +1,51 @@
+package com.github.springAi.bench;
+
+import com.github.springAi.config.IngestConfig;
+import com.github.springAi.config.IngestionProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.transformer.splitter.TokenTextSplitter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chunking throughput of the {@link TokenTextSplitter} bean as configured for ingestion
+ * (ingestion.chunking defaults), on one document of the given size.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TextSplitterBenchmark {
+
+    @Param({"16384", "1048576"})
+    int chars;
+
+    private TokenTextSplitter splitter;
+    private String text;
+
+    @Setup
+    public void setUp() {
+        splitter = new IngestConfig().tokenTextSplitter(new IngestionProperties());
+        text = SampleText.generate(2, chars);
+    }
+
+    @Benchmark
+    public List<Document> split() {
+        return splitter.apply(List.of(new Document(text, Map.of("file_name", "bench.txt"))));
+    }
+}
@@ -0,0 +1,81 @@
+package com.github.springAi.bench;
+
+import com.github.springAi.vector.PgVector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client-side cost of binding and reading back one embedding in {@code PostgresVectorStore}: the legacy
+ * {@code Arrays.toString} literal, {@link PgVector}'s text form, and its binary (send/recv) form.
+ * Network and server-side parsing are not included; see PostgresBulkLoad for those.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VectorParamEncodingBenchmark {
+
+    @Param({"384", "1536"})
+    int dimensions;
+
+    private float[] embedding;
+    private String literal;
+    private byte[] binary;
+
+    @Setup
+    public void setUp() {
+        embedding = SimilarityKernelBenchmark.randomUnitVector(new Random(3), dimensions);
+        PgVector vector = new PgVector(embedding);
+        literal = vector.getValue();
+        binary = new byte[vector.lengthInBytes()];
+        vector.toBytes(binary, 0);
+    }
+
+    @Benchmark
+    public String encodeArraysToString() {
+        return Arrays.toString(embedding);
+    }
+
+    @Benchmark
+    public String encodeText() {
+        return new PgVector(embedding).getValue();
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() {
+        PgVector vector = new PgVector(embedding);
+        byte[] bytes = new byte[vector.lengthInBytes()];
+        vector.toBytes(bytes, 0);
+        return bytes;
+    }
+
+    @Benchmark
+    public float[] decodeText() throws SQLException {
+        PgVector vector = new PgVector();
+        vector.setValue(literal);
+        return vector.toArray();
+    }
+
+    @Benchmark
+    public float[] decodeBinary() {
+        PgVector vector = new PgVector();
+        vector.setByteValue(binary, 0);
+        return vector.toArray();
+    }
+}
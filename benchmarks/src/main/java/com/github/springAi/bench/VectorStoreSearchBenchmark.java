@@ -0,0 +1,94 @@
+package com.github.springAi.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.springAi.domain.DocumentSegment;
+import com.github.springAi.embe.EmbeddingServiceProperties;
+import com.github.springAi.vector.InMemoryVectorStore;
+import com.github.springAi.vector.VectorStoreProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exact top-10 search over {@link InMemoryVectorStore} with heap storage and no quantisation, unfiltered
+ * and with a metadata filter selecting one sixteenth of the corpus.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector", "-Xmx4g"})
+public class VectorStoreSearchBenchmark {
+
+    private static final int TENANTS = 16;
+
+    @Param({"10000", "100000"})
+    int corpusSize;
+
+    @Param({"384", "1536"})
+    int dimensions;
+
+    @Param({"10"})
+    int topK;
+
+    private InMemoryVectorStore store;
+    private float[] query;
+    private Map<String, Object> tenantFilter;
+
+    @Setup
+    public void setUp() {
+        EmbeddingServiceProperties embeddingProperties = new EmbeddingServiceProperties();
+        embeddingProperties.setDimensions(dimensions);
+        store = new InMemoryVectorStore(new VectorStoreProperties(), embeddingProperties, new ObjectMapper(), event -> {
+        });
+
+        Random random = new Random(42);
+        int batchSize = 1000;
+        for (int start = 0; start < corpusSize; start += batchSize) {
+            int size = Math.min(batchSize, corpusSize - start);
+            List<DocumentSegment> segments = new ArrayList<>(size);
+            List<float[]> embeddings = new ArrayList<>(size);
+            for (int i = start; i < start + size; i++) {
+                segments.add(new DocumentSegment(UUID.randomUUID(), UUID.randomUUID(),
+                        Map.of("tenant", "tenant-" + (i % TENANTS), "file_name", "doc-" + i + ".html"),
+                        "Segment " + i));
+                embeddings.add(SimilarityKernelBenchmark.randomUnitVector(random, dimensions));
+            }
+            store.upsertBatch(segments, embeddings);
+        }
+        query = SimilarityKernelBenchmark.randomUnitVector(random, dimensions);
+        tenantFilter = Map.of("tenant", "tenant-3");
+    }
+
+    @TearDown
+    public void tearDown() {
+        store.close();
+    }
+
+    @Benchmark
+    public List<DocumentSegment> search() {
+        return store.search(query, topK, Map.of());
+    }
+
+    @Benchmark
+    public List<DocumentSegment> searchFiltered() {
+        return store.search(query, topK, tenantFilter);
+    }
+}
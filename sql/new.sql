@@ -6,12 +6,16 @@ CREATE EXTENSION IF NOT EXISTS vector;
 CREATE TABLE IF NOT EXISTS documents (
                                          id UUID PRIMARY KEY,
                                          source_path TEXT NOT NULL,
-                                         sha256 TEXT NOT NULL UNIQUE, -- Ensures we never ingest the same file twice
+                                         sha256 TEXT NOT NULL, -- Content hash once fully ingested, 'pending:<id>' until then
                                          metadata JSONB,
                                          created_at TIMESTAMPTZ DEFAULT now() NOT NULL
     );
 
 CREATE INDEX IF NOT EXISTS idx_documents_sha256 ON documents(sha256);
+-- A file is ingested once per path; the same content under two paths is two documents.
+-- Databases created with the former UNIQUE(sha256) need its constraint dropped.
+ALTER TABLE documents DROP CONSTRAINT IF EXISTS documents_sha256_key;
+CREATE UNIQUE INDEX IF NOT EXISTS uq_documents_source_path_sha256 ON documents(source_path, sha256);
 COMMENT ON TABLE documents IS 'Stores metadata for original source documents.';
 
 -- 2. Create the 'vector_segments' table for chunks.
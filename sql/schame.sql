@@ -69,4 +69,10 @@ CREATE INDEX IF NOT EXISTS idx_vector_segments_metadata_gin
 -- C. Composite Index for Multi-tenancy (Critical for 200/s burst)
 -- This allows the DB to instantly narrow down segments to a specific user/session
 CREATE INDEX IF NOT EXISTS idx_segments_user_talk
-    ON vector_segments (user_id, talk_id);ent in the documents table.';
\ No newline at end of file
+    ON vector_segments (user_id, talk_id);ent in the documents table.';
+
+-- D. Optional binary-quantised HNSW index for vector-store.quantization=binary (pgvector >= 0.7).
+-- Searches scan 1-bit codes (32x smaller than vector(1536)) and re-rank the pool with the full vectors.
+-- Match bit(1536) to your embedding dimension.
+-- CREATE INDEX IF NOT EXISTS idx_vector_segments_embedding_bq
+--     ON vector_segments USING hnsw ((binary_quantize(embedding)::bit(1536)) bit_hamming_ops);